@@ -0,0 +1,39 @@
+package io.satori.edu.benchmark;
+
+import io.satori.edu.DemoApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application without the web layer against a private in-memory H2 database in MySQL mode.
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.show-sql=false",
+                "spring.jpa.open-in-view=false",
+                "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                "spring.jpa.properties.hibernate.order_inserts=true",
+                "spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=pooled-lo",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN"));
+        properties.addAll(List.of(extraProperties)); //later entries win
+        return new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties.toArray(new String[0]))
+                .run();
+    }
+}
@@ -0,0 +1,27 @@
+package io.satori.edu.benchmark;
+
+import io.satori.edu.cohort.Cohort;
+import io.satori.edu.cohort.CohortService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CohortServiceBenchmark {
+
+    @Benchmark
+    public List<Cohort> getAllCohort(Dataset dataset) {
+        return dataset.inRequest(() -> dataset.bean(CohortService.class).getAllCohort(null, 100).getItems());
+    }
+}
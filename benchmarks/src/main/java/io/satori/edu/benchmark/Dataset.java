@@ -0,0 +1,135 @@
+package io.satori.edu.benchmark;
+
+import io.satori.edu.cohort.Cohort;
+import io.satori.edu.cohort.CohortRepository;
+import io.satori.edu.course.Course;
+import io.satori.edu.course.CourseRepository;
+import io.satori.edu.student.Gender;
+import io.satori.edu.student.Student;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Application context plus datasetSize students on top of the DbConfiguration seed data.
+ * Every student is enrolled in up to two courses of its faculty with a random grade between 0 and 10.
+ */
+@State(Scope.Benchmark)
+public class Dataset {
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Param({"1000", "10000"})
+    public int datasetSize;
+
+    ConfigurableApplicationContext context;
+    int facultyId;
+    List<Integer> facultyStudentIds;
+    private final Random random = new Random(42);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        List<Cohort> cohorts = context.getBean(CohortRepository.class).findAll();
+        Map<Integer, List<Integer>> coursesByFaculty = context.getBean(CourseRepository.class).findAll().stream()
+                .collect(Collectors.groupingBy(course -> course.getFaculty().getId(),
+                         Collectors.mapping(Course::getId, Collectors.toList())));
+        List<Student> students = insertStudents(cohorts);
+        insertResults(students, coursesByFaculty);
+        facultyId = cohorts.get(0).getFaculty().getId();
+        facultyStudentIds = students.stream()
+                .filter(student -> student.getFacultyId() == facultyId)
+                .map(Student::getId)
+                .collect(Collectors.toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Run a service call the way the controllers do: with one EntityManager bound for the whole call,
+     * as spring.jpa.open-in-view (on by default) does per request. Without it, lazy proxies returned by
+     * getById would be detached before the service uses them.
+     */
+    <T> T inRequest(Supplier<T> call) {
+        EntityManagerFactory entityManagerFactory = bean(EntityManagerFactory.class);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            return call.get();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+
+    void inRequest(Runnable call) {
+        inRequest(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    int randomFacultyStudentId() {
+        return facultyStudentIds.get(random.nextInt(facultyStudentIds.size()));
+    }
+
+    private List<Student> insertStudents(List<Cohort> cohorts) {
+        EntityManager entityManager = bean(EntityManager.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(bean(PlatformTransactionManager.class));
+        List<Student> students = new ArrayList<>(datasetSize);
+        for (int from = 0; from < datasetSize; from += CHUNK_SIZE) {
+            int to = Math.min(from + CHUNK_SIZE, datasetSize);
+            int first = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = first; i < to; i++) {
+                    Cohort cohort = cohorts.get(i % cohorts.size());
+                    Student student = new Student("Student " + i, "student" + i + "@dataset.io",
+                            i % 2 == 0 ? Gender.Female : Gender.Male, LocalDate.of(2000, 1, 1).plusDays(i % 3650),
+                            entityManager.getReference(Cohort.class, cohort.getId()));
+                    entityManager.persist(student);
+                    students.add(student);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        return students;
+    }
+
+    private void insertResults(List<Student> students, Map<Integer, List<Integer>> coursesByFaculty) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Student student : students) {
+            List<Integer> courses = coursesByFaculty.get(student.getFacultyId());
+            for (int i = 0; i < Math.min(2, courses.size()); i++) {
+                rows.add(new Object[]{student.getId(), courses.get(i), random.nextInt(11)});
+            }
+        }
+        bean(JdbcTemplate.class).batchUpdate("INSERT INTO result (student_id, course_id, grade) VALUES (?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,80 @@
+package io.satori.edu.benchmark;
+
+import io.satori.edu.cohort.Cohort;
+import io.satori.edu.cohort.CohortRepository;
+import io.satori.edu.student.Gender;
+import io.satori.edu.student.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Student insert throughput with one sequence round trip per id ("none", the old allocationSize = 1 behaviour)
+ * against block allocation ("pooled-lo", 50 ids per round trip). The score is inserted students per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdAllocationBenchmark {
+
+    private static final int STUDENTS_PER_OP = 500;
+
+    @Param({"none", "pooled-lo"})
+    public String optimizer;
+
+    private final AtomicLong emailCounter = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private Cohort cohort;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=" + optimizer);
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        cohort = context.getBean(CohortRepository.class).findAll().get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STUDENTS_PER_OP)
+    public void insertStudents() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Cohort reference = entityManager.getReference(Cohort.class, cohort.getId());
+            for (int i = 0; i < STUDENTS_PER_OP; i++) {
+                long n = emailCounter.incrementAndGet();
+                entityManager.persist(new Student("Student " + n, "student" + n + "@bench.io", Gender.Female,
+                        LocalDate.of(2000, 1, 1), reference));
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package io.satori.edu.benchmark;
+
+import io.satori.edu.course.Course;
+import io.satori.edu.course.CourseService;
+import io.satori.edu.result.Result;
+import io.satori.edu.result.ResultService;
+import io.satori.edu.result.ResultSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultServiceBenchmark {
+
+    /**
+     * Enrolls the faculty's students one by one into a course nobody has taken yet,
+     * and opens a new course once every student is enrolled, so addResult always takes the success path.
+     */
+    @State(Scope.Benchmark)
+    public static class Enrollments {
+        private int courseCount;
+        private int courseId;
+        private int next;
+
+        synchronized int[] nextPair(Dataset dataset) {
+            if (courseId == 0 || next == dataset.facultyStudentIds.size()) {
+                Course course = new Course("Benchmark course " + (++courseCount), null);
+                dataset.inRequest(() -> dataset.bean(CourseService.class).addCourse(course, dataset.facultyId));
+                courseId = course.getId();
+                next = 0;
+            }
+            return new int[]{dataset.facultyStudentIds.get(next++), courseId};
+        }
+    }
+
+    @Benchmark
+    public void addResult(Dataset dataset, Enrollments enrollments) {
+        int[] pair = enrollments.nextPair(dataset);
+        Result result = new Result();
+        result.setGrade(7);
+        dataset.inRequest(() -> dataset.bean(ResultService.class).addResult(result, pair[0], pair[1]));
+    }
+
+    @Benchmark
+    public List<ResultSummary> top50ResultsWithGradeAtLeast9(Dataset dataset) {
+        return dataset.inRequest(() -> dataset.bean(ResultService.class).getResultByGradeGreaterThanEqual(9, null, 50, null, null).getItems());
+    }
+}
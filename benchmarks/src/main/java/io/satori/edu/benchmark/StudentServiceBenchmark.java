@@ -0,0 +1,55 @@
+package io.satori.edu.benchmark;
+
+import io.satori.edu.student.Gender;
+import io.satori.edu.student.Student;
+import io.satori.edu.student.StudentRosterEntry;
+import io.satori.edu.student.StudentService;
+import io.satori.edu.student.StudentSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentServiceBenchmark {
+
+    private static final AtomicLong EMAILS = new AtomicLong();
+
+    @Benchmark
+    public void addStudent(Dataset dataset) {
+        long n = EMAILS.incrementAndGet();
+        Student student = new Student("New student " + n, "new" + n + "@bench.io", Gender.Male, LocalDate.of(2001, 5, 5), null);
+        dataset.inRequest(() -> dataset.bean(StudentService.class).addStudent(student, 1));
+    }
+
+    @Benchmark
+    public void updateStudent(Dataset dataset) {
+        int studentId = dataset.randomFacultyStudentId();
+        String name = "Renamed " + EMAILS.incrementAndGet();
+        dataset.inRequest(() -> dataset.bean(StudentService.class).updateStudent(studentId, name, null, null, null, null));
+    }
+
+    //The faculty join query behind GET /api/v1/students/faculty/{facultyId}
+    @Benchmark
+    public List<StudentSummary> studentsInFaculty(Dataset dataset) {
+        return dataset.inRequest(() -> dataset.bean(StudentService.class).getStudentInWhichFaculty(dataset.facultyId));
+    }
+
+    //First page of GET /api/v1/faculties/{id}/students
+    @Benchmark
+    public List<StudentRosterEntry> facultyRosterPage(Dataset dataset) {
+        return dataset.inRequest(() -> dataset.bean(StudentService.class).getFacultyRoster(dataset.facultyId, null, 100).getItems());
+    }
+}
@@ -0,0 +1,51 @@
+// Writes gzip (.gz) and brotli (.br) copies of the text assets of a build, next to the originals.
+// Runs after `npm run build` (postbuild); Spring Boot serves the variant the browser accepts.
+// Usage: node precompress.js dist/frontend
+
+const fs = require('fs');
+const path = require('path');
+const zlib = require('zlib');
+
+const COMPRESSIBLE = /\.(js|css|html|svg|json|txt|map|ico|md|xml|webmanifest)$/;
+// Below this, the headers cost more than compression saves
+const MIN_BYTES = 1024;
+
+function walk(dir) {
+  return fs.readdirSync(dir, { withFileTypes: true }).flatMap(entry => {
+    const file = path.join(dir, entry.name);
+    return entry.isDirectory() ? walk(file) : [file];
+  });
+}
+
+// Only keep a variant that is actually smaller than the original
+function write(file, data, original) {
+  if (data.length < original.length) {
+    fs.writeFileSync(file, data);
+    return data.length;
+  }
+  if (fs.existsSync(file)) {
+    fs.unlinkSync(file);
+  }
+  return original.length;
+}
+
+const root = process.argv[2] || 'dist/frontend';
+let before = 0, gzipped = 0, brotli = 0;
+for (const file of walk(root)) {
+  if (!COMPRESSIBLE.test(file)) {
+    continue;
+  }
+  const original = fs.readFileSync(file);
+  if (original.length < MIN_BYTES) {
+    continue;
+  }
+  before += original.length;
+  gzipped += write(file + '.gz', zlib.gzipSync(original, { level: zlib.constants.Z_BEST_COMPRESSION }), original);
+  brotli += write(file + '.br', zlib.brotliCompressSync(original, {
+    params: {
+      [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY,
+      [zlib.constants.BROTLI_PARAM_SIZE_HINT]: original.length
+    }
+  }), original);
+}
+console.log(`precompress: ${before} bytes -> gzip ${gzipped}, brotli ${brotli}`);
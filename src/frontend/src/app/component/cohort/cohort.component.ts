@@ -6,6 +6,7 @@ import { Cohort } from 'src/app/interface/cohort';
 import { Faculty } from 'src/app/interface/faculty';
 import { CohortService } from 'src/app/service/cohort.service';
 import { FacultyService } from 'src/app/service/faculty.service';
+import { Page } from 'src/app/service/paged-list';
 
 @Component({
   selector: 'app-cohort',
@@ -15,6 +16,7 @@ import { FacultyService } from 'src/app/service/faculty.service';
 export class CohortComponent implements OnInit {
 
   public listCohort: Cohort[];
+  public nextCursor: string | null = null; //null once the last page is loaded
   public listFaculty: Faculty[];
   public cohort: Cohort;
 
@@ -43,12 +45,25 @@ export class CohortComponent implements OnInit {
     )
   }
 
-  public getAllCohort():void
+  public getAllCohort():void //first page, loadMoreCohort appends the next ones
   {
-    this.cohortService.getAllCohort().subscribe(
-      (response: Cohort[]) => {
-        this.listCohort = response;
-        console.log(this.listCohort);
+    this.cohortService.getCohortPage().subscribe(
+      (response: Page<Cohort>) => {
+        this.listCohort = response.items;
+        this.nextCursor = response.nextCursor;
+      },
+      (error: HttpErrorResponse) => {
+        alert(error.error.message);
+      }
+    )
+  }
+
+  public loadMoreCohort():void
+  {
+    this.cohortService.getCohortPage(this.nextCursor).subscribe(
+      (response: Page<Cohort>) => {
+        this.listCohort = this.listCohort.concat(response.items);
+        this.nextCursor = response.nextCursor;
       },
       (error: HttpErrorResponse) => {
         alert(error.error.message);
@@ -5,6 +5,7 @@ import { Course } from 'src/app/interface/course';
 import { Faculty } from 'src/app/interface/faculty';
 import { CourseService } from 'src/app/service/course.service';
 import { FacultyService } from 'src/app/service/faculty.service';
+import { Page } from 'src/app/service/paged-list';
 
 @Component({
   selector: 'app-course',
@@ -14,6 +15,7 @@ import { FacultyService } from 'src/app/service/faculty.service';
 export class CourseComponent implements OnInit {
 
   public listCourses: Course[];
+  public nextCursor: string | null = null; //null once the last page is loaded
   public listFaculty: Faculty[];
   public course: Course;
 
@@ -29,15 +31,28 @@ export class CourseComponent implements OnInit {
     this.course = course;
   }
 
-  public getAllCourse():void
+  public getAllCourse():void //first page, loadMoreCourse appends the next ones
   {
-    this.courseService.getAllCourse().subscribe(
-      (response: Course[]) => {
-        this.listCourses = response;
-        console.log(this.listCourses);
+    this.courseService.getCoursePage().subscribe(
+      (response: Page<Course>) => {
+        this.listCourses = response.items;
+        this.nextCursor = response.nextCursor;
       },
       (error: HttpErrorResponse) => {
-       alert(error.error.message);
+        alert(error.error.message);
+      }
+    );
+  }
+
+  public loadMoreCourse():void
+  {
+    this.courseService.getCoursePage(this.nextCursor).subscribe(
+      (response: Page<Course>) => {
+        this.listCourses = this.listCourses.concat(response.items);
+        this.nextCursor = response.nextCursor;
+      },
+      (error: HttpErrorResponse) => {
+        alert(error.error.message);
       }
     );
   }
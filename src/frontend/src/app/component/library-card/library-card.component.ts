@@ -5,6 +5,7 @@ import { LibraryCard } from 'src/app/interface/library-card';
 import { Student } from 'src/app/interface/student';
 import { LibraryCardService } from 'src/app/service/library-card.service';
 import { StudentService } from 'src/app/service/student.service';
+import { Page } from 'src/app/service/paged-list';
 
 @Component({
   selector: 'app-library-card',
@@ -14,6 +15,7 @@ import { StudentService } from 'src/app/service/student.service';
 export class LibraryCardComponent implements OnInit {
 
   public listLibraryCard: LibraryCard[];
+  public nextCursor: string | null = null; //null once the last page is loaded
   public listStudent: Student[];
   public libraryCard: LibraryCard;
 
@@ -29,12 +31,25 @@ export class LibraryCardComponent implements OnInit {
   {
     this.libraryCard = libraryCard;
   }
-  public getAllLibraryCard():void
+  public getAllLibraryCard():void //first page, loadMoreLibraryCard appends the next ones
   {
-    this.libraryCardService.getAllLibraryCard().subscribe(
-      (response: LibraryCard[]) => {
-        this.listLibraryCard = response;
-        console.log(this.listLibraryCard)
+    this.libraryCardService.getLibraryCardPage().subscribe(
+      (response: Page<LibraryCard>) => {
+        this.listLibraryCard = response.items;
+        this.nextCursor = response.nextCursor;
+      },
+      (error: HttpErrorResponse) => {
+        alert(error.error.message);
+      }
+    )
+  }
+
+  public loadMoreLibraryCard():void
+  {
+    this.libraryCardService.getLibraryCardPage(this.nextCursor).subscribe(
+      (response: Page<LibraryCard>) => {
+        this.listLibraryCard = this.listLibraryCard.concat(response.items);
+        this.nextCursor = response.nextCursor;
       },
       (error: HttpErrorResponse) => {
         alert(error.error.message);
@@ -7,6 +7,7 @@ import { Student } from 'src/app/interface/student';
 import { CourseService } from 'src/app/service/course.service';
 import { ResultService } from 'src/app/service/result.service';
 import { StudentService } from 'src/app/service/student.service';
+import { Page } from 'src/app/service/paged-list';
 
 @Component({
   selector: 'app-result',
@@ -18,6 +19,7 @@ export class ResultComponent implements OnInit {
   public listCourse: Course[];
   public listStudent: Student[];
   public listResult: Result[];
+  public nextCursor: string | null = null; //null once the last page is loaded
   public result: Result;
   public listGrade : Array<number> = [1,2,3,4,5,6,7,8,9,10];
 
@@ -35,12 +37,25 @@ export class ResultComponent implements OnInit {
   {
     this.result = result;
   }
-  public getAllResult():void
+  public getAllResult():void //first page, loadMoreResult appends the next ones
   {
-    this.resultService.getAllResult().subscribe(
-      (response: Result[]) => {
-        this.listResult = response;
-        console.log(this.listResult);
+    this.resultService.getResultPage().subscribe(
+      (response: Page<Result>) => {
+        this.listResult = response.items;
+        this.nextCursor = response.nextCursor;
+      },
+      (error: HttpErrorResponse) => {
+        alert(error.error.message);
+      }
+    );
+  }
+
+  public loadMoreResult():void
+  {
+    this.resultService.getResultPage(this.nextCursor).subscribe(
+      (response: Page<Result>) => {
+        this.listResult = this.listResult.concat(response.items);
+        this.nextCursor = response.nextCursor;
       },
       (error: HttpErrorResponse) => {
         alert(error.error.message);
@@ -6,6 +6,7 @@ import { Cohort } from 'src/app/interface/cohort';
 import { Student } from 'src/app/interface/student';
 import { CohortService } from 'src/app/service/cohort.service';
 import { StudentService } from 'src/app/service/student.service';
+import { Page } from 'src/app/service/paged-list';
 
 @Component({
   selector: 'app-student',
@@ -16,6 +17,7 @@ export class StudentComponent implements OnInit {
 
   public listCohort: Cohort[];
   public listStudent: Student[];
+  public nextCursor: string | null = null; //null once the last page is loaded
   public student: Student;
    selectedCohortId: number | null = null;
 
@@ -64,12 +66,25 @@ export class StudentComponent implements OnInit {
       )
   }
 
-  public getAllStudent():void
+  public getAllStudent():void //first page, loadMoreStudent appends the next ones
   {
-      this.studentService.getAllStudent().subscribe(
-        (response: Student[]) => {
-          this.listStudent = response;
-          console.log(this.listStudent);
+      this.studentService.getStudentPage().subscribe(
+        (response: Page<Student>) => {
+          this.listStudent = response.items;
+          this.nextCursor = response.nextCursor;
+        },
+        (error: HttpErrorResponse) => {
+          alert(error.error.message);
+        }
+      );
+  }
+
+  public loadMoreStudent():void
+  {
+      this.studentService.getStudentPage(this.nextCursor).subscribe(
+        (response: Page<Student>) => {
+          this.listStudent = this.listStudent.concat(response.items);
+          this.nextCursor = response.nextCursor;
         },
         (error: HttpErrorResponse) => {
           alert(error.error.message);
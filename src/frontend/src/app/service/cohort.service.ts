@@ -4,6 +4,7 @@ import { NgForm } from '@angular/forms';
 import { Observable } from 'rxjs';
 import { environment } from 'src/environments/environment';
 import { Cohort } from '../interface/cohort';
+import { getPage, getPickerOptions, Page } from './paged-list';
 
 @Injectable({
   providedIn: 'root'
@@ -14,9 +15,14 @@ export class CohortService {
 
   constructor(private http:HttpClient) { }
 
-  public getAllCohort(): Observable<Cohort[]>
+  public getCohortPage(after: string | null = null): Observable<Page<Cohort>> //one page, pass nextCursor for the next
   {
-    return this.http.get<Cohort[]>(`${this.backendURL}`);
+    return getPage<Cohort>(this.http, `${this.backendURL}`, after);
+  }
+
+  public getAllCohort(): Observable<Cohort[]> //options of a picker, capped
+  {
+    return getPickerOptions<Cohort>(this.http, `${this.backendURL}`);
   }
 
   public addCohort(cohort: Cohort, facultyId: number): Observable<Cohort>
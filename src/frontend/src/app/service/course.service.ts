@@ -3,6 +3,7 @@ import { Injectable } from '@angular/core';
 import { Observable } from 'rxjs';
 import { environment } from 'src/environments/environment';
 import { Course } from '../interface/course';
+import { getPage, getPickerOptions, Page } from './paged-list';
 
 
 @Injectable({
@@ -14,9 +15,14 @@ export class CourseService {
 
   constructor(private http:HttpClient) { }
 
-  public getAllCourse(): Observable<Course[]>
+  public getCoursePage(after: string | null = null): Observable<Page<Course>> //one page, pass nextCursor for the next
   {
-    return this.http.get<Course[]>(`${this.backendURL}`);
+    return getPage<Course>(this.http, `${this.backendURL}`, after);
+  }
+
+  public getAllCourse(): Observable<Course[]> //options of a picker, capped
+  {
+    return getPickerOptions<Course>(this.http, `${this.backendURL}`);
   }
 
   public addCourse(course: Course, facultyId: number): Observable<Course>
@@ -3,6 +3,7 @@ import { Injectable } from '@angular/core';
 import { Observable } from 'rxjs';
 import { environment } from 'src/environments/environment';
 import { LibraryCard } from '../interface/library-card';
+import { getPage, getPickerOptions, Page } from './paged-list';
 
 @Injectable({
   providedIn: 'root'
@@ -13,9 +14,14 @@ export class LibraryCardService {
 
   constructor(private http: HttpClient) { }
 
-  public getAllLibraryCard(): Observable<LibraryCard[]>
+  public getLibraryCardPage(after: string | null = null): Observable<Page<LibraryCard>> //one page, pass nextCursor for the next
   {
-    return this.http.get<LibraryCard[]>(`${this.backendURL}/library-card`)
+    return getPage<LibraryCard>(this.http, `${this.backendURL}/library-card`, after);
+  }
+
+  public getAllLibraryCard(): Observable<LibraryCard[]> //options of a picker, capped
+  {
+    return getPickerOptions<LibraryCard>(this.http, `${this.backendURL}/library-card`);
   }
 
   public addLibraryCard(libraryCard: LibraryCard,studentId: number): Observable<LibraryCard>
@@ -0,0 +1,46 @@
+import { HttpClient, HttpParams } from '@angular/common/http';
+import { EMPTY, Observable } from 'rxjs';
+import { expand, map, reduce } from 'rxjs/operators';
+
+export const NEXT_CURSOR_HEADER = 'X-Next-Cursor'; //set by the backend while more rows follow
+export const PAGE_SIZE = 100; //rows per page of a list screen, the backend default
+const PICKER_PAGE_SIZE = 1000; //largest page the backend serves
+const PICKER_MAX_PAGES = 10; //a picker never loads more than 10000 rows
+
+/**
+ * One page of a keyset-paginated list: nextCursor is null on the last page.
+ */
+export interface Page<T> {
+  items: T[];
+  nextCursor: string | null;
+}
+
+/**
+ * Fetches one page of a list endpoint, starting after the given cursor.
+ */
+export function getPage<T>(http: HttpClient, url: string, after: string | null = null,
+                           limit: number = PAGE_SIZE): Observable<Page<T>>
+{
+  let params = new HttpParams().set('limit', String(limit));
+  if (after !== null) {
+    params = params.set('after', after);
+  }
+  return http.get<T[]>(url, { params, observe: 'response' }).pipe(
+    map(response => ({ items: response.body ?? [], nextCursor: response.headers.get(NEXT_CURSOR_HEADER) }))
+  );
+}
+
+/**
+ * Fills the options of a <select> picker: follows the cursor for at most
+ * PICKER_MAX_PAGES pages and emits the concatenated rows once.
+ * List screens page with getPage instead.
+ */
+export function getPickerOptions<T>(http: HttpClient, url: string): Observable<T[]>
+{
+  return getPage<T>(http, url, null, PICKER_PAGE_SIZE).pipe(
+    expand((page, index) => page.nextCursor !== null && index + 1 < PICKER_MAX_PAGES
+      ? getPage<T>(http, url, page.nextCursor, PICKER_PAGE_SIZE)
+      : EMPTY),
+    reduce((rows: T[], page: Page<T>) => rows.concat(page.items), [])
+  );
+}
@@ -3,6 +3,7 @@ import { Injectable } from '@angular/core';
 import { Observable } from 'rxjs';
 import { environment } from 'src/environments/environment';
 import { Result } from '../interface/result';
+import { getPage, getPickerOptions, Page } from './paged-list';
 
 @Injectable({
   providedIn: 'root'
@@ -13,9 +14,14 @@ export class ResultService {
 
   constructor(private http: HttpClient) { }
 
-  public getAllResult(): Observable<Result[]> //get All Student from backend
+  public getResultPage(after: string | null = null): Observable<Page<Result>> //one page, pass nextCursor for the next
   {
-    return this.http.get<Result[]>(`${this.backendURL}`); //localhost:8080/spring-boot/student
+    return getPage<Result>(this.http, `${this.backendURL}`, after);
+  }
+
+  public getAllResult(): Observable<Result[]> //options of a picker, capped
+  {
+    return getPickerOptions<Result>(this.http, `${this.backendURL}`);
   }
 
   public addResult(result: Result,studentId: number, courseId: number): Observable<Result>
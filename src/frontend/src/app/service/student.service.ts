@@ -4,6 +4,7 @@ import { Observable } from 'rxjs';
 import { environment } from 'src/environments/environment';
 import { Gender } from '../enum/gender.enum';
 import { Student } from '../interface/student';
+import { getPage, getPickerOptions, Page } from './paged-list';
 
 @Injectable({
   providedIn: 'root'
@@ -14,9 +15,14 @@ export class StudentService {
 
   constructor(private http: HttpClient) { }
 
-  public getAllStudent(): Observable<Student[]> //get All Student from backend
+  public getStudentPage(after: string | null = null): Observable<Page<Student>> //one page, pass nextCursor for the next
   {
-    return this.http.get<Student[]>(`${this.backendURL}`); //localhost:8080/spring-boot/student
+    return getPage<Student>(this.http, `${this.backendURL}`, after);
+  }
+
+  public getAllStudent(): Observable<Student[]> //options of a picker, capped
+  {
+    return getPickerOptions<Student>(this.http, `${this.backendURL}`);
   }
 
   public addStudent(student: Student, cohortId: number): Observable<Student>
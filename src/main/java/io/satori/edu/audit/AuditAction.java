@@ -0,0 +1,7 @@
+package io.satori.edu.audit;
+
+public enum AuditAction {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,37 @@
+package io.satori.edu.audit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(path = "api/v1/audit")
+public class AuditController {
+
+    private final AuditLog auditLog;
+
+    @Autowired
+    public AuditController(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    @GetMapping(path = "/events") //latest first: ?limit={n}&entity={Student|Cohort|...}&action={CREATE|UPDATE|DELETE}
+    public ResponseEntity<List<AuditEvent>> getRecentEvents(
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String entity,
+        @RequestParam(required = false) AuditAction action)
+    {
+        return ResponseEntity.ok(auditLog.recentEvents(limit, entity, action));
+    }
+
+    @GetMapping(path = "/stats")
+    public ResponseEntity<AuditStats> getStats()
+    {
+        return ResponseEntity.ok(auditLog.getStats());
+    }
+}
@@ -0,0 +1,47 @@
+package io.satori.edu.audit;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.time.Instant;
+
+/**
+ * One committed mutation: what happened to which entity, and when.
+ * Only the id is kept, never the entity itself, so publishing an event never formats or loads an object graph.
+ */
+@JsonPropertyOrder({"sequence", "timestamp", "action", "entity", "entityId"})
+public class AuditEvent {
+
+    private final long sequence;
+    private final Instant timestamp;
+    private final AuditAction action;
+    private final String entity;
+    private final String entityId;
+
+    AuditEvent(long sequence, Instant timestamp, AuditAction action, String entity, String entityId) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.action = action;
+        this.entity = entity;
+        this.entityId = entityId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public AuditAction getAction() {
+        return action;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public String getEntityId() {
+        return entityId;
+    }
+}
@@ -0,0 +1,210 @@
+package io.satori.edu.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.satori.edu.pagination.CursorPage;
+import io.satori.edu.transaction.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail of committed mutations.
+ * Services call {@link #record}, which only puts a small event into a lock-free ring buffer once the transaction commits.
+ * A single background thread drains the buffer in batches, appends them as JSON lines to audit.log
+ * (rotated to audit.1.log .. audit.N.log by size) and keeps the latest events in memory for GET /api/v1/audit/events.
+ */
+@Component
+public class AuditLog {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final AuditRingBuffer buffer;
+    private final ObjectWriter writer;
+    private final Path directory;
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final int batchSize;
+    private final int recentSize;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong writeErrors = new AtomicLong();
+    private final ArrayDeque<AuditEvent> recent = new ArrayDeque<>(); //guarded by itself, newest last
+
+    private volatile boolean running;
+    private Thread thread;
+    private BufferedWriter out; //writer thread only
+    private long fileBytes; //writer thread only
+
+    @Autowired
+    public AuditLog(ObjectMapper objectMapper,
+                    @Value("${audit.directory:audit}") String directory,
+                    @Value("${audit.buffer-size:8192}") int bufferSize,
+                    @Value("${audit.batch-size:512}") int batchSize,
+                    @Value("${audit.max-file-bytes:10485760}") long maxFileBytes,
+                    @Value("${audit.max-files:5}") int maxFiles,
+                    @Value("${audit.recent-size:1000}") int recentSize) {
+        this.buffer = new AuditRingBuffer(bufferSize);
+        this.writer = objectMapper.writerFor(AuditEvent.class);
+        this.directory = Paths.get(directory);
+        this.file = this.directory.resolve("audit.log");
+        this.batchSize = batchSize;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.recentSize = recentSize;
+    }
+
+    public void record(AuditAction action, String entity, Object entityId) {
+        String id = String.valueOf(entityId); //ids only, never an entity, so no toString walks into lazy associations
+        AfterCommit.run(() -> buffer.offer(new AuditEvent(sequence.incrementAndGet(), Instant.now(), action, entity, id)));
+    }
+
+    /**
+     * Latest events first, optionally only those of one entity type and/or action.
+     */
+    public List<AuditEvent> recentEvents(Integer limit, String entity, AuditAction action) {
+        int max = CursorPage.resolveLimit(limit);
+        List<AuditEvent> events = new ArrayList<>(Math.min(max, recentSize));
+        synchronized (recent) {
+            Iterator<AuditEvent> newestFirst = recent.descendingIterator();
+            while (newestFirst.hasNext() && events.size() < max) {
+                AuditEvent event = newestFirst.next();
+                if ((entity == null || entity.equalsIgnoreCase(event.getEntity())) && (action == null || action == event.getAction())) {
+                    events.add(event);
+                }
+            }
+        }
+        return events;
+    }
+
+    public AuditStats getStats() {
+        return new AuditStats(sequence.get(), buffer.dropped(), written.get(), writeErrors.get(), buffer.size(),
+                buffer.capacity(), file.toAbsolutePath().toString());
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "audit-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (true) {
+            batch.clear();
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                if (!running) {
+                    break; //stopped and drained
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            write(batch);
+            remember(batch);
+        }
+        close();
+    }
+
+    private void write(List<AuditEvent> batch) {
+        try {
+            StringBuilder lines = new StringBuilder(batch.size() * 128);
+            for (AuditEvent event : batch) {
+                lines.append(writer.writeValueAsString(event)).append('\n');
+            }
+            String text = lines.toString();
+            int bytes = text.getBytes(StandardCharsets.UTF_8).length;
+            if (out == null) {
+                open();
+            }
+            if (fileBytes > 0 && fileBytes + bytes > maxFileBytes) {
+                close();
+                shift();
+                open();
+            }
+            out.write(text);
+            out.flush(); //one write per batch
+            fileBytes += bytes;
+            written.addAndGet(batch.size());
+        } catch (IOException e) {
+            writeErrors.addAndGet(batch.size());
+            log.warn("Could not write {} audit events to {}", batch.size(), file, e);
+            close(); //reopened by the next batch
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileBytes = Files.size(file);
+    }
+
+    //audit.log -> audit.1.log -> ... -> audit.{maxFiles}.log, the oldest is deleted
+    private void shift() throws IOException {
+        Files.deleteIfExists(rotated(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            if (Files.exists(rotated(i))) {
+                Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path rotated(int index) {
+        return directory.resolve("audit." + index + ".log");
+    }
+
+    private void remember(List<AuditEvent> batch) {
+        synchronized (recent) {
+            for (AuditEvent event : batch) {
+                if (recent.size() == recentSize) {
+                    recent.removeFirst();
+                }
+                recent.addLast(event);
+            }
+        }
+    }
+
+    private void close() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.warn("Could not close {}", file, e);
+            }
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.satori.edu.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer for many producers (request threads) and a single consumer (the audit writer).
+ * Every slot carries a sequence number telling whose turn it is: position p may be written when it equals p,
+ * and read when it equals p + 1; the consumer then hands it to the producer one lap later (p + capacity).
+ * Producers claim a position with a CAS on the tail and never wait: when the slot is still a lap behind
+ * the buffer is full, the event is dropped and counted, so a slow disk can't slow down requests.
+ */
+class AuditRingBuffer {
+
+    private final AtomicReferenceArray<AuditEvent> slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); //next position to claim
+    private final AtomicLong head = new AtomicLong(); //next position to drain, only moved by the consumer
+    private final AtomicLong dropped = new AtomicLong();
+
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1; //next power of two, so index = position & mask
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+    }
+
+    boolean offer(AuditEvent event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long lag = sequences.get(index) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, event);
+                    sequences.set(index, position + 1); //publish: the volatile write makes the event visible with it
+                    return true;
+                }
+                position = tail.get(); //another producer took it
+            } else if (lag < 0) {
+                dropped.incrementAndGet(); //the consumer has not freed this slot since the last lap
+                return false;
+            } else {
+                position = tail.get(); //stale tail, another producer already moved past it
+            }
+        }
+    }
+
+    /**
+     * Move up to max published events into batch, in claim order. Consumer thread only.
+     */
+    int drainTo(List<AuditEvent> batch, int max) {
+        long position = head.get();
+        int count = 0;
+        while (count < max) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break; //empty, or claimed but not published yet
+            }
+            batch.add(slots.get(index));
+            slots.lazySet(index, null);
+            sequences.set(index, position + slots.length()); //free for the producer of the next lap
+            position++;
+            count++;
+        }
+        head.lazySet(position);
+        return count;
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    long size() {
+        return Math.max(0, tail.get() - head.get()); //claimed positions count as soon as they are claimed
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,52 @@
+package io.satori.edu.audit;
+
+public class AuditStats {
+
+    private final long published;
+    private final long dropped;
+    private final long written;
+    private final long writeErrors;
+    private final long pending;
+    private final int capacity;
+    private final String file;
+
+    public AuditStats(long published, long dropped, long written, long writeErrors, long pending, int capacity, String file) {
+        this.published = published;
+        this.dropped = dropped;
+        this.written = written;
+        this.writeErrors = writeErrors;
+        this.pending = pending;
+        this.capacity = capacity;
+        this.file = file;
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    //events lost because the buffer was full
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    public long getWriteErrors() {
+        return writeErrors;
+    }
+
+    //published, not written yet
+    public long getPending() {
+        return pending;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public String getFile() {
+        return file;
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -22,10 +23,17 @@ import java.util.List;
             this.cohortService = cohortService;
         }
 
-        @GetMapping
-        public ResponseEntity<List<Cohort>> getAllCohorts()
+        @GetMapping //Conditional GET: If-None-Match with the last ETag gets a 304 without touching the list
+        public ResponseEntity<List<Cohort>> getAllCohorts(
+            @RequestParam(required = false) Integer after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request)
         {
-            return ResponseEntity.ok(cohortService.getAllCohort());
+            String eTag = cohortService.getCohortsETag(); //read before the page, so the tag is never newer than the body
+            if (request.checkNotModified(eTag)) {
+                return null; //304, the ETag header is already set
+            }
+            return cohortService.getAllCohort(after, limit).toResponseEntity();
         }
 
         @GetMapping(path = "/{id}")
@@ -43,11 +51,19 @@ import java.util.List;
         return new ResponseEntity<>(HttpStatus.CREATED);
     }
 
-    @DeleteMapping(path = "/{id}")
-    public ResponseEntity<Void> deleteCohort(@PathVariable("id") Integer id)
+    @DeleteMapping(path = "/{id}") //reports the rows removed with the cohort: students, results, library cards
+    public ResponseEntity<CohortDeleteReport> deleteCohort(@PathVariable("id") Integer id)
     {
-        cohortService.deleteCohort(id);
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.ok(cohortService.deleteCohort(id));
+    }
+
+    @PostMapping(path = "/{id}/transfer") //one UPDATE for the whole cohort, or for the given studentIds of it
+    public ResponseEntity<CohortTransferReport> transferStudents(
+        @PathVariable("id") Integer id,
+        @RequestParam Integer to,
+        @RequestParam(required = false) List<Integer> studentIds)
+    {
+        return ResponseEntity.ok(cohortService.transferStudents(id, to, studentIds));
     }
 
     @PutMapping(path = "/{id}")
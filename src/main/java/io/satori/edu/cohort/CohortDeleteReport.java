@@ -0,0 +1,41 @@
+package io.satori.edu.cohort;
+
+/**
+ * Rows removed by deleting a cohort, the cohort itself included.
+ */
+public class CohortDeleteReport {
+
+    private final int cohortId;
+    private final int cohorts;
+    private final int students;
+    private final int results;
+    private final int libraryCards;
+
+    public CohortDeleteReport(int cohortId, int cohorts, int students, int results, int libraryCards) {
+        this.cohortId = cohortId;
+        this.cohorts = cohorts;
+        this.students = students;
+        this.results = results;
+        this.libraryCards = libraryCards;
+    }
+
+    public int getCohortId() {
+        return cohortId;
+    }
+
+    public int getCohorts() {
+        return cohorts;
+    }
+
+    public int getStudents() {
+        return students;
+    }
+
+    public int getResults() {
+        return results;
+    }
+
+    public int getLibraryCards() {
+        return libraryCards;
+    }
+}
@@ -1,9 +1,12 @@
 package io.satori.edu.cohort;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -15,4 +18,28 @@ public interface CohortRepository extends JpaRepository<Cohort,Integer> { //Spri
     @Query("SELECT c FROM Cohort c WHERE c.name = ?1")
     Optional<Cohort> findCohortByName(String name);
 
+    //Set-based existence check for bulk imports
+    @Query("SELECT c.id FROM Cohort c WHERE c.id IN ?1")
+    List<Integer> findExistingIds(Collection<Integer> ids);
+
+    //Single-row deletes without loading the entity, the count tells whether it existed
+    @Modifying
+    @Query(value = "DELETE FROM cohort WHERE id = ?1", nativeQuery = true)
+    int deleteCohortById(int cohortId);
+
+    @Query(value = "SELECT c.id FROM cohort c WHERE c.faculty_id = ?1", nativeQuery = true)
+    List<Integer> findIdsByFaculty(int facultyId);
+
+    @Modifying
+    @Query(value = "DELETE FROM cohort WHERE faculty_id = ?1", nativeQuery = true)
+    int deleteByFaculty(int facultyId);
+
+    //id, name, faculty id - scalar rows for the reference data snapshot
+    @Query("SELECT c.id, c.name, c.faculty.id FROM Cohort c")
+    List<Object[]> findAllCohortRows();
+
+    //id, name, faculty id, faculty name of one cohort - fills a reference data miss without a full reload
+    @Query("SELECT c.id, c.name, f.id, f.name FROM Cohort c LEFT JOIN c.faculty f WHERE c.id = ?1")
+    List<Object[]> findCohortRow(int cohortId);
+
 }
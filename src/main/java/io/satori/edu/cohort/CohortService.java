@@ -1,37 +1,85 @@
 package io.satori.edu.cohort;
 
+import io.satori.edu.audit.AuditAction;
+import io.satori.edu.audit.AuditLog;
 import io.satori.edu.exception.APIEntityNotFoundException;
 import io.satori.edu.exception.BadRequestException;
 import io.satori.edu.faculty.FacultyRepository;
+import io.satori.edu.librarycard.LibraryCardRepository;
+import io.satori.edu.pagination.CursorPage;
+import io.satori.edu.referencedata.CohortRef;
+import io.satori.edu.referencedata.ReferenceDataCache;
+import io.satori.edu.result.GradeDistribution;
+import io.satori.edu.result.ResultRepository;
+import io.satori.edu.search.SearchService;
+import io.satori.edu.search.SearchType;
+import io.satori.edu.student.TranscriptCache;
+import io.satori.edu.student.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class CohortService {
 
+    //Upper bound of the studentIds filter of a transfer, the ids end up in an IN list
+    static final int MAX_TRANSFER_STUDENT_IDS = 1000;
+
     private final CohortRepository cohortRepository;
     private final FacultyRepository facultyRepository;
+    private final StudentRepository studentRepository;
+    private final ResultRepository resultRepository;
+    private final LibraryCardRepository libraryCardRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final GradeDistribution gradeDistribution;
+    private final TranscriptCache transcriptCache;
+    private final SearchService searchService;
+    private final AuditLog auditLog;
 
     @Autowired
-    public CohortService(CohortRepository cohortRepository, FacultyRepository facultyRepository) {
+    public CohortService(CohortRepository cohortRepository, FacultyRepository facultyRepository, StudentRepository studentRepository,
+                         ResultRepository resultRepository, LibraryCardRepository libraryCardRepository, ReferenceDataCache referenceDataCache, GradeDistribution gradeDistribution,
+                         TranscriptCache transcriptCache, SearchService searchService, AuditLog auditLog) {
         this.cohortRepository = cohortRepository;
         this.facultyRepository = facultyRepository;
+        this.studentRepository = studentRepository;
+        this.resultRepository = resultRepository;
+        this.libraryCardRepository = libraryCardRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.gradeDistribution = gradeDistribution;
+        this.transcriptCache = transcriptCache;
+        this.searchService = searchService;
+        this.auditLog = auditLog;
+    }
+
+    public CursorPage<Cohort> getAllCohort(Integer after, Integer limit)
+    {
+        List<Cohort> rows = referenceDataCache.snapshot().getCohorts().tailMap(after == null ? 0 : after, false).values().stream()
+                .limit(CursorPage.limitPlusOne(limit).getPageSize())
+                .map(CohortRef::toEntity)
+                .collect(Collectors.toList());
+        return CursorPage.of(rows, limit, cohort -> String.valueOf(cohort.getId()));
     }
 
-    public List<Cohort> getAllCohort()
+    public String getCohortsETag()
     {
-        return cohortRepository.findAll();
+        return referenceDataCache.cohortsETag();
     }
 
     public Cohort getOneCohort(Integer CohortId)
     {
-        return cohortRepository.findById(CohortId).orElseThrow(()-> new APIEntityNotFoundException("Cohort with id "+CohortId+ " was not found"));
+        return referenceDataCache.findCohort(CohortId).orElseThrow(()-> new APIEntityNotFoundException("Cohort with id "+CohortId+ " was not found"));
     }
 
+    @Transactional
     public void addCohort(Cohort Cohort,Integer facultyId)
     {
         Optional<Cohort> CohortByName = cohortRepository.findCohortByName(Cohort.getName());
@@ -39,27 +87,111 @@ public class CohortService {
         {
             throw new BadRequestException("Name already exist in database");
         }
-        boolean exists = facultyRepository.existsById(facultyId);
+        boolean exists = referenceDataCache.findFaculty(facultyId).isPresent();
         if(!exists)
         {
             throw new APIEntityNotFoundException("Faculty with id "+facultyId+ " was not found");
         }
         Cohort.setFaculty(facultyRepository.getById(facultyId));
         cohortRepository.save(Cohort);
-        System.out.println(Cohort);
+        referenceDataCache.reloadAfterCommit();
+        searchService.putAfterCommit(SearchType.COHORT, Cohort.getId(), Cohort.getName(), null);
+        auditLog.record(AuditAction.CREATE, "Cohort", Cohort.getId());
     }
 
-    public void deleteCohort(Integer cohortId)
+    /**
+     * Deletes the cohort with its students, their results and library cards: one DELETE per table, children first,
+     * instead of loading the cohort's subtree and removing it row by row.
+     */
+    @Transactional
+    public CohortDeleteReport deleteCohort(Integer cohortId)
     {
-        boolean exists = cohortRepository.existsById(cohortId);
-        if(!exists)
+        //What goes away is read first, so the in-memory grade counters and search index only lose these rows
+        List<Integer> studentIds = studentRepository.lockIdsByCohort(cohortId);
+        List<Object[]> grades = resultRepository.countGradesByCohort(cohortId);
+        int libraryCards = libraryCardRepository.deleteByCohort(cohortId);
+        int results = resultRepository.deleteByCohort(cohortId);
+        int students = studentRepository.deleteByCohort(cohortId);
+        int cohorts = cohortRepository.deleteCohortById(cohortId);
+        if(cohorts == 0) //nothing above matched either, the rollback is free
         {
             throw new BadRequestException("Cohort with id = "+cohortId+ " does not exist in database");
         }
-        System.out.println("Cohort id = "+cohortId+" has been delete");
-        cohortRepository.deleteById(cohortId);
+        referenceDataCache.reloadAfterCommit();
+        transcriptCache.clearAfterCommit();
+        for (Object[] grade : grades) {
+            gradeDistribution.recordAdded((Integer) grade[0], (Integer) grade[1], -((Number) grade[2]).intValue());
+        }
+        searchService.removeAllAfterCommit(SearchType.STUDENT, studentIds);
+        searchService.removeAfterCommit(SearchType.COHORT, cohortId);
+        auditLog.record(AuditAction.DELETE, "Cohort", cohortId);
+        return new CohortDeleteReport(cohortId, cohorts, students, results, libraryCards);
+    }
+
+    /**
+     * Move students from one cohort to another with one UPDATE, instead of one student update each.
+     * Without studentIds the whole cohort moves. A student with results in a course outside the new cohort's
+     * faculty would break the enrolment rule, so the transfer is refused if any of the selected students has one.
+     * The checked rows are locked and the UPDATE repeats the rule; if it still moves a different number of students
+     * than were checked, the cohort changed in between and the whole transfer is rolled back.
+     */
+    @Transactional
+    public CohortTransferReport transferStudents(Integer fromCohortId, Integer toCohortId, List<Integer> studentIds)
+    {
+        if(Objects.equals(fromCohortId, toCohortId))
+        {
+            throw new BadRequestException("Students can't be transferred to the cohort they are in");
+        }
+        if(studentIds != null && studentIds.size() > MAX_TRANSFER_STUDENT_IDS)
+        {
+            throw new BadRequestException("At most "+MAX_TRANSFER_STUDENT_IDS+" studentIds can be transferred at once, omit them to transfer the whole cohort");
+        }
+        referenceDataCache.findCohort(fromCohortId).orElseThrow(() -> new APIEntityNotFoundException("Cohort with id "+fromCohortId+" was not found"));
+        Cohort to = referenceDataCache.findCohort(toCohortId).orElseThrow(() -> new APIEntityNotFoundException("Cohort with id "+toCohortId+" was not found"));
+        int facultyId = to.getFaculty().getId();
+        boolean wholeCohort = studentIds == null || studentIds.isEmpty();
+        Set<Integer> requested = wholeCohort ? Set.of() : new LinkedHashSet<>(studentIds);
+
+        List<Object[]> rows = wholeCohort
+                ? studentRepository.findCohortTransferRows(fromCohortId, facultyId)
+                : studentRepository.findCohortTransferRows(fromCohortId, facultyId, requested);
+        List<Integer> moving = new ArrayList<>(rows.size());
+        List<Integer> blocked = new ArrayList<>();
+        for (Object[] row : rows)
+        {
+            int studentId = ((Number) row[0]).intValue();
+            moving.add(studentId);
+            if(((Number) row[1]).intValue() == 1)
+            {
+                blocked.add(studentId);
+            }
+        }
+        if(!blocked.isEmpty())
+        {
+            throw new BadRequestException("Students "+blocked+" have results in courses outside faculty of "+to.getFaculty().getName()+" and can't move to cohort "+toCohortId);
+        }
+        List<Integer> notInCohort = new ArrayList<>(requested);
+        notInCohort.removeAll(moving);
+        if(moving.isEmpty())
+        {
+            return new CohortTransferReport(fromCohortId, toCohortId, 0, notInCohort);
+        }
+        int transferred = wholeCohort
+                ? studentRepository.transferCohort(fromCohortId, toCohortId, facultyId)
+                : studentRepository.transferCohortStudents(fromCohortId, toCohortId, facultyId, moving);
+        if(transferred != moving.size())
+        {
+            throw new BadRequestException("Cohort "+fromCohortId+" changed during the transfer, no student was moved; try again");
+        }
+        for (Integer studentId : moving) //cohort and faculty are part of the transcript; the search index holds neither
+        {
+            transcriptCache.evictAfterCommit(studentId);
+            auditLog.record(AuditAction.UPDATE, "Student", studentId);
+        }
+        return new CohortTransferReport(fromCohortId, toCohortId, transferred, notInCohort);
     }
 
+    @Transactional
     public void updateCohort(Integer CohortId, String name, Integer facultyId)
     {
         //Check studentId in database
@@ -75,14 +207,19 @@ public class CohortService {
         }
         if(facultyId != null && !Objects.equals(Cohort.getFaculty().getId(), facultyId)) //if the new name has been provided is not the same name in database
         {
-            boolean exists = facultyRepository.existsById(facultyId);
+            boolean exists = referenceDataCache.findFaculty(facultyId).isPresent();
             if(!exists)
             {
                 throw new BadRequestException("Faculty "+facultyId+" doesn't exist in database");
             }
             Cohort.setFaculty(facultyRepository.getById(facultyId));
+            studentRepository.updateFacultyIdByCohort(CohortId, facultyId); //students follow their cohort to the new faculty
         }
         cohortRepository.save(Cohort);
+        referenceDataCache.reloadAfterCommit();
+        transcriptCache.clearAfterCommit();
+        searchService.putAfterCommit(SearchType.COHORT, CohortId, Cohort.getName(), null);
+        auditLog.record(AuditAction.UPDATE, "Cohort", CohortId);
     }
 
 
@@ -0,0 +1,38 @@
+package io.satori.edu.cohort;
+
+import java.util.List;
+
+/**
+ * Outcome of moving students from one cohort to another: how many moved, and the requested ids
+ * that were not students of the source cohort.
+ */
+public class CohortTransferReport {
+
+    private final int fromCohortId;
+    private final int toCohortId;
+    private final int transferred;
+    private final List<Integer> notInCohort;
+
+    public CohortTransferReport(int fromCohortId, int toCohortId, int transferred, List<Integer> notInCohort) {
+        this.fromCohortId = fromCohortId;
+        this.toCohortId = toCohortId;
+        this.transferred = transferred;
+        this.notInCohort = notInCohort;
+    }
+
+    public int getFromCohortId() {
+        return fromCohortId;
+    }
+
+    public int getToCohortId() {
+        return toCohortId;
+    }
+
+    public int getTransferred() {
+        return transferred;
+    }
+
+    public List<Integer> getNotInCohort() {
+        return notInCohort;
+    }
+}
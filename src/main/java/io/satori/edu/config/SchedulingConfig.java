@@ -0,0 +1,10 @@
+package io.satori.edu.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Enables @Scheduled jobs such as the periodic reference data refresh
+}
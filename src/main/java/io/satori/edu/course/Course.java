@@ -20,7 +20,7 @@ public class Course {
     @Id
     @SequenceGenerator(name = "course_sequence",
                     sequenceName = "course_sequence",
-                     allocationSize = 1) //generate sequence with id auto increment begin 1
+                     allocationSize = 50) //reserve a block of 50 ids per sequence call (pooled-lo optimizer)
     @GeneratedValue(strategy = GenerationType.SEQUENCE,
                     generator = "course_sequence") //use sequence is just defined above
     @Column(name = "id",
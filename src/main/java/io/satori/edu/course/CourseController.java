@@ -1,9 +1,15 @@
 package io.satori.edu.course;
 
+import io.satori.edu.result.EnrollmentReport;
+import io.satori.edu.result.GradeBatchReport;
+import io.satori.edu.result.GradeStats;
+import io.satori.edu.result.GradeUpdate;
+import io.satori.edu.result.ResultService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -13,16 +19,25 @@ import java.util.List;
 public class CourseController {
 
     private final CourseService courseService;
+    private final ResultService resultService;
 
     @Autowired
-    public CourseController(CourseService courseService) {
+    public CourseController(CourseService courseService, ResultService resultService) {
         this.courseService = courseService;
+        this.resultService = resultService;
     }
 
-    @GetMapping
-    public ResponseEntity<List<Course>> getAllCourses()
+    @GetMapping //Conditional GET: If-None-Match with the last ETag gets a 304 without touching the list
+    public ResponseEntity<List<Course>> getAllCourses(
+        @RequestParam(required = false) Integer after,
+        @RequestParam(required = false) Integer limit,
+        WebRequest request)
     {
-        return ResponseEntity.ok(courseService.getAllCourse());
+        String eTag = courseService.getCoursesETag(); //read before the page, so the tag is never newer than the body
+        if (request.checkNotModified(eTag)) {
+            return null; //304, the ETag header is already set
+        }
+        return courseService.getAllCourse(after, limit).toResponseEntity();
     }
 
     @GetMapping(path = "/{id}")
@@ -31,6 +46,31 @@ public class CourseController {
         return ResponseEntity.ok(courseService.getOneCourse(id));
     }
 
+    @GetMapping(path = "/{id}/grades/stats") //histogram, mean, median; percentileRank of ?grade= when given
+    public ResponseEntity<GradeStats> getGradeStats(
+        @PathVariable("id") Integer id,
+        @RequestParam(required = false) Integer grade)
+    {
+        return ResponseEntity.ok(courseService.getGradeStats(id, grade));
+    }
+
+    @PutMapping(path = "/{id}/grades") //JSON array of {studentId, grade}, applied in one transaction
+    public ResponseEntity<GradeBatchReport> updateGrades(
+        @PathVariable("id") Integer id,
+        @RequestBody List<GradeUpdate> grades)
+    {
+        return ResponseEntity.ok(resultService.updateCourseGrades(id, grades));
+    }
+
+    @PostMapping(path = "/{id}/enroll-cohort/{cohortId}") //every student of the cohort not enrolled yet, ?grade= defaults to 0
+    public ResponseEntity<EnrollmentReport> enrollCohort(
+        @PathVariable("id") Integer id,
+        @PathVariable("cohortId") Integer cohortId,
+        @RequestParam(required = false) Integer grade)
+    {
+        return ResponseEntity.ok(resultService.enrollCohort(id, cohortId, grade));
+    }
+
     @PostMapping
     public ResponseEntity<Void> createCourse(
         @Valid @RequestBody Course course,
@@ -1,9 +1,11 @@
 package io.satori.edu.course;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +13,26 @@ public interface CourseRepository extends JpaRepository<Course,Integer> {
 
     @Query("SELECT c FROM Course c WHERE c.name = ?1 ")
     Optional<Course> findCourseByName(String name);
+
+    //Single-row delete without loading the entity, the count tells whether it existed.
+    //result rows go with it (ON DELETE CASCADE)
+    @Modifying
+    @Query(value = "DELETE FROM course WHERE id = ?1", nativeQuery = true)
+    int deleteCourseById(int courseId);
+
+    //Locked so no result can be added to the faculty's courses before the delete
+    @Query(value = "SELECT c.id FROM course c WHERE c.faculty_id = ?1 FOR UPDATE", nativeQuery = true)
+    List<Integer> lockIdsByFaculty(int facultyId);
+
+    @Modifying
+    @Query(value = "DELETE FROM course WHERE faculty_id = ?1", nativeQuery = true)
+    int deleteByFaculty(int facultyId);
+
+    //id, name, faculty id - scalar rows for the reference data snapshot
+    @Query("SELECT c.id, c.name, c.faculty.id FROM Course c")
+    List<Object[]> findAllCourseRows();
+
+    //id, name, faculty id, faculty name of one course - fills a reference data miss without a full reload
+    @Query("SELECT c.id, c.name, f.id, f.name FROM Course c LEFT JOIN c.faculty f WHERE c.id = ?1")
+    List<Object[]> findCourseRow(int courseId);
 }
@@ -1,37 +1,77 @@
 package io.satori.edu.course;
 
+import io.satori.edu.audit.AuditAction;
+import io.satori.edu.audit.AuditLog;
 import io.satori.edu.exception.APIEntityNotFoundException;
 import io.satori.edu.exception.BadRequestException;
 import io.satori.edu.faculty.FacultyRepository;
+import io.satori.edu.pagination.CursorPage;
+import io.satori.edu.referencedata.CourseRef;
+import io.satori.edu.referencedata.ReferenceDataCache;
+import io.satori.edu.result.GradeDistribution;
+import io.satori.edu.result.GradeStats;
+import io.satori.edu.search.SearchService;
+import io.satori.edu.search.SearchType;
+import io.satori.edu.student.TranscriptCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class CourseService {
 
     private final CourseRepository courseRepository;
     private final FacultyRepository facultyRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final GradeDistribution gradeDistribution;
+    private final TranscriptCache transcriptCache;
+    private final SearchService searchService;
+    private final AuditLog auditLog;
 
     @Autowired
-    public CourseService(CourseRepository courseRepository, FacultyRepository facultyRepository) {
+    public CourseService(CourseRepository courseRepository, FacultyRepository facultyRepository, ReferenceDataCache referenceDataCache,
+                         GradeDistribution gradeDistribution, TranscriptCache transcriptCache,
+                         SearchService searchService, AuditLog auditLog) {
         this.courseRepository = courseRepository;
         this.facultyRepository = facultyRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.gradeDistribution = gradeDistribution;
+        this.transcriptCache = transcriptCache;
+        this.searchService = searchService;
+        this.auditLog = auditLog;
     }
 
-    public List<Course> getAllCourse()
+    public CursorPage<Course> getAllCourse(Integer after, Integer limit)
     {
-        return courseRepository.findAll();
+        List<Course> rows = referenceDataCache.snapshot().getCourses().tailMap(after == null ? 0 : after, false).values().stream()
+                .limit(CursorPage.limitPlusOne(limit).getPageSize())
+                .map(CourseRef::toEntity)
+                .collect(Collectors.toList());
+        return CursorPage.of(rows, limit, course -> String.valueOf(course.getId()));
+    }
+
+    public String getCoursesETag()
+    {
+        return referenceDataCache.coursesETag();
     }
 
     public Course getOneCourse(Integer courseId)
     {
-        return courseRepository.findById(courseId).orElseThrow(()-> new APIEntityNotFoundException("Course with id "+courseId+" was not found"));
+        return referenceDataCache.findCourse(courseId).orElseThrow(()-> new APIEntityNotFoundException("Course with id "+courseId+" was not found"));
     }
 
+    public GradeStats getGradeStats(Integer courseId, Integer grade)
+    {
+        getOneCourse(courseId);
+        return gradeDistribution.getStats(courseId, grade);
+    }
+
+    @Transactional
     public void addCourse(Course course, Integer facultyId)
     {
         Optional<Course> courseByName = courseRepository.findCourseByName(course.getName());
@@ -39,27 +79,34 @@ public class CourseService {
         {
             throw new BadRequestException("Name already exist in database");
         }
-        boolean exists = facultyRepository.existsById(facultyId);
+        boolean exists = referenceDataCache.findFaculty(facultyId).isPresent();
         if(!exists)
         {
             throw new APIEntityNotFoundException("Faculty with id "+facultyId+ " was not found");
         }
         course.setFaculty(facultyRepository.getById(facultyId));
         courseRepository.save(course);
-        System.out.println(course);
+        referenceDataCache.reloadAfterCommit();
+        searchService.putAfterCommit(SearchType.COURSE, course.getId(), course.getName(), null);
+        auditLog.record(AuditAction.CREATE, "Course", course.getId());
     }
 
+    @Transactional
     public void deleteCourse(Integer courseId)
     {
-        boolean exists = courseRepository.existsById(courseId);
-        if(!exists)
+        int deleted = courseRepository.deleteCourseById(courseId); //the delete cascades over the course's results
+        if(deleted == 0)
         {
             throw new APIEntityNotFoundException("Course with id = "+courseId+ " does not exist in database");
         }
-        System.out.println("Course id = "+courseId+" has been delete");
-        courseRepository.deleteById(courseId);
+        referenceDataCache.reloadAfterCommit();
+        transcriptCache.clearAfterCommit();
+        gradeDistribution.forgetCourse(courseId);
+        searchService.removeAfterCommit(SearchType.COURSE, courseId);
+        auditLog.record(AuditAction.DELETE, "Course", courseId);
     }
 
+    @Transactional
     public void updateCourse(Integer courseId, String name, Integer facultyId)
     {
         Course course = courseRepository.findById(courseId).orElseThrow(()-> new APIEntityNotFoundException("Course with id "+courseId+" was not found"));
@@ -77,6 +124,10 @@ public class CourseService {
             course.setFaculty(facultyRepository.getById(facultyId));
         }
         courseRepository.save(course);
+        referenceDataCache.reloadAfterCommit();
+        transcriptCache.clearAfterCommit();
+        searchService.putAfterCommit(SearchType.COURSE, courseId, course.getName(), null);
+        auditLog.record(AuditAction.UPDATE, "Course", courseId);
     }
 
 
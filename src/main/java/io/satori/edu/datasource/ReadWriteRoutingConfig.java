@@ -0,0 +1,87 @@
+package io.satori.edu.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single auto-configured pool with a primary pool plus one pool per read replica,
+ * when datasource.replica-urls is set. Without it the application keeps Spring Boot's plain datasource.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica-urls")
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Replica pools copy the primary's settings, except for a short connection timeout: a replica that is down
+     * makes a read wait that long before it falls back to the primary, then sits out the back-off period.
+     * They start lazily, so a replica that is down at boot only costs its reads a fallback to the primary.
+     */
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource, MeterRegistry meterRegistry,
+                                                        @Value("${datasource.replica-urls}") String[] replicaUrls,
+                                                        @Value("${datasource.replica-username:}") String replicaUsername,
+                                                        @Value("${datasource.replica-password:}") String replicaPassword,
+                                                        @Value("${datasource.replica-connection-timeout-ms:1000}") long connectionTimeoutMs,
+                                                        @Value("${datasource.replica-backoff-ms:30000}") long backoffMs) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            config.setJdbcUrl(url.trim());
+            if (!replicaUsername.isEmpty()) {
+                config.setUsername(replicaUsername);
+                config.setPassword(replicaPassword);
+            }
+            config.setReadOnly(true);
+            config.setConnectionTimeout(connectionTimeoutMs);
+            config.setInitializationFailTimeout(-1);
+            config.setMetricRegistry(null);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, Duration.ofMillis(backoffMs), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * With open-in-view Hibernate would otherwise hold the first connection for the whole request,
+     * so every later transaction would reuse whichever side the first one picked.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
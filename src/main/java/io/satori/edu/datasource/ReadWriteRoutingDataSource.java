@@ -0,0 +1,169 @@
+package io.satori.edu.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to the replicas (round robin) and everything else to the primary.
+ * <ul>
+ *     <li>Must sit behind a LazyConnectionDataSourceProxy: the read-only flag of a transaction is only known
+ *     once it has begun, so the physical connection has to be picked at the first statement.</li>
+ *     <li>Read your writes: once a request has run a read-write transaction, its later reads stay on the primary.</li>
+ *     <li>Reads outside any transaction, and reads wrapped in {@link #onPrimary(Supplier)}, go to the primary.</li>
+ *     <li>A replica that can't hand out a connection sends that read to the primary, and is left out of the
+ *     rotation for a back-off period, so later reads don't wait on it too.</li>
+ * </ul>
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+    private static final String STICKY_ATTRIBUTE = ReadWriteRoutingDataSource.class.getName() + ".STICKY";
+    private static final ThreadLocal<Integer> PRIMARY_ONLY = ThreadLocal.withInitial(() -> 0);
+
+    private final DataSource primary;
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final long backoffNanos;
+    private final Map<String, Long> backingOffUntil = new ConcurrentHashMap<>(); //replica key -> System.nanoTime()
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final Counter replicaFallbacks;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, Duration backoff,
+                                      MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.backoffNanos = backoff.toNanos();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + (i + 1);
+            replicaKeys.add(key);
+            targets.put(key, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        primaryConnections = meterRegistry.counter("datasource.routing.connections", "target", "primary");
+        replicaConnections = meterRegistry.counter("datasource.routing.connections", "target", "replica");
+        replicaFallbacks = meterRegistry.counter("datasource.routing.replica.fallbacks");
+    }
+
+    /**
+     * Run reads that must see the latest committed data on the primary, even inside a read-only transaction
+     * (e.g. loads that fill a cache, which would otherwise keep a lagging replica's answer until the next write).
+     * A transaction keeps the connection of its first statement, so this has to wrap that first statement.
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        PRIMARY_ONLY.set(PRIMARY_ONLY.get() + 1);
+        try {
+            return reads.get();
+        } finally {
+            PRIMARY_ONLY.set(PRIMARY_ONLY.get() - 1);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                markRequestSticky();
+            }
+            return PRIMARY;
+        }
+        if (replicaKeys.isEmpty() || PRIMARY_ONLY.get() > 0 || isRequestSticky()) {
+            return PRIMARY;
+        }
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicaKeys.size(); i++) {
+            String key = replicaKeys.get(Math.floorMod(start + i, replicaKeys.size()));
+            if (!isBackingOff(key)) {
+                return key;
+            }
+        }
+        return PRIMARY; //every replica is backing off
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (PRIMARY.equals(key)) {
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = getResolvedDataSources().get(key).getConnection();
+            replicaConnections.increment();
+            return connection;
+        } catch (SQLException e) {
+            backingOffUntil.put((String) key, System.nanoTime() + backoffNanos);
+            log.warn("{} unavailable, reading from the primary for the next {} ms: {}",
+                    key, TimeUnit.NANOSECONDS.toMillis(backoffNanos), e.getMessage());
+            replicaFallbacks.increment();
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection(); //every pool carries its own credentials
+    }
+
+    /**
+     * Closes the replica pools; the primary is a bean of its own and closed by the container.
+     */
+    public void close() throws IOException {
+        for (Object key : replicaKeys) {
+            DataSource replica = getResolvedDataSources().get(key);
+            if (replica instanceof Closeable) {
+                ((Closeable) replica).close();
+            }
+        }
+    }
+
+    private boolean isBackingOff(String key) {
+        Long until = backingOffUntil.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until < 0) {
+            return true;
+        }
+        backingOffUntil.remove(key, until); //back in the rotation; a new failure starts another back-off
+        return false;
+    }
+
+    private static void markRequestSticky() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(STICKY_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static boolean isRequestSticky() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return request != null && request.getAttribute(STICKY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+}
@@ -0,0 +1,56 @@
+package io.satori.edu.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a JPA result stream as newline delimited JSON (one object per line).
+ * Rows are detached as soon as they are written, and the persistence context is cleared
+ * every {@link #FETCH_SIZE} rows, so memory stays flat however large the table is.
+ * Must be called inside a transaction, because the stream is backed by an open JDBC cursor.
+ */
+@Component
+public class NdjsonExporter {
+
+    //Rows pulled from the JDBC cursor per round trip, shared with the repository query hints
+    public static final String FETCH_SIZE = "1000";
+
+    private static final int CLEAR_INTERVAL = Integer.parseInt(FETCH_SIZE);
+
+    private final ObjectWriter writer;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public NdjsonExporter(ObjectMapper objectMapper, EntityManager entityManager) {
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.entityManager = entityManager;
+    }
+
+    public <T> long write(Stream<T> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = writer.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                writer.writeValue(generator, row);
+                generator.writeRaw('\n');
+                entityManager.detach(row);
+                if (++count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear(); //drop the eager @ManyToOne graphs loaded with the last batch
+                }
+            }
+        }
+        return count;
+    }
+}
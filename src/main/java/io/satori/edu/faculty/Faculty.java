@@ -17,7 +17,7 @@ import java.util.List;
 public class Faculty  {
 
     @Id //Primary Key
-    @SequenceGenerator(name = "faculty_sequence",sequenceName = "faculty_sequence",allocationSize = 1) //generate sequence with id auto increment begin 1
+    @SequenceGenerator(name = "faculty_sequence",sequenceName = "faculty_sequence",allocationSize = 50) //reserve a block of 50 ids per sequence call (pooled-lo optimizer)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "faculty_sequence") //use sequence is just defined above
     @Column(name = "id",
             updatable = false,
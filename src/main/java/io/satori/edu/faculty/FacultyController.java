@@ -1,9 +1,12 @@
 package io.satori.edu.faculty;
 
+import io.satori.edu.student.StudentRosterEntry;
+import io.satori.edu.student.StudentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -14,14 +17,20 @@ import java.util.List;
 public class FacultyController {
 
     private final FacultyService facultyService;
+    private final StudentService studentService;
 
     @Autowired
-    public FacultyController(FacultyService facultyService) {
+    public FacultyController(FacultyService facultyService, StudentService studentService) {
         this.facultyService = facultyService;
+        this.studentService = studentService;
     }
 
-    @GetMapping
-    public ResponseEntity<List<Faculty>> getAllFaculties() {
+    @GetMapping // Conditional GET: If-None-Match with the last ETag gets a 304 without touching the list
+    public ResponseEntity<List<Faculty>> getAllFaculties(WebRequest request) {
+        String eTag = facultyService.getFacultiesETag(); // Read before the list, so the tag is never newer than the body
+        if (request.checkNotModified(eTag)) {
+            return null; // 304, the ETag header is already set
+        }
         List<Faculty> faculties = facultyService.getFaculty();
         return ResponseEntity.ok(faculties);
     }
@@ -32,6 +41,14 @@ public class FacultyController {
         return ResponseEntity.ok(faculty);
     }
 
+    @GetMapping("/{id}/students") // Faculty roster, one keyset page: ?after={last student id}&limit={page size}
+    public ResponseEntity<List<StudentRosterEntry>> getFacultyRoster(
+            @PathVariable("id") Integer id,
+            @RequestParam(required = false) Integer after,
+            @RequestParam(required = false) Integer limit) {
+        return studentService.getFacultyRoster(id, after, limit).toResponseEntity();
+    }
+
     @PostMapping
     public ResponseEntity<Faculty> createFaculty(@Valid @RequestBody Faculty faculty) {
         facultyService.addFaculty(faculty);
@@ -47,9 +64,8 @@ public class FacultyController {
         return ResponseEntity.ok(faculty);
     }
 
-    @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteFaculty(@PathVariable("id") Integer id) {
-        facultyService.deleteFaculty(id);
-        return ResponseEntity.noContent().build();
+    @DeleteMapping("/{id}") // Reports the rows removed with the faculty: cohorts, courses, students, results, library cards
+    public ResponseEntity<FacultyDeleteReport> deleteFaculty(@PathVariable("id") Integer id) {
+        return ResponseEntity.ok(facultyService.deleteFaculty(id));
     }
 }
\ No newline at end of file
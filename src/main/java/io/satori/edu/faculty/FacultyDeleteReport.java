@@ -0,0 +1,53 @@
+package io.satori.edu.faculty;
+
+/**
+ * Rows removed by deleting a faculty, the faculty itself included.
+ */
+public class FacultyDeleteReport {
+
+    private final int facultyId;
+    private final int faculties;
+    private final int cohorts;
+    private final int courses;
+    private final int students;
+    private final int results;
+    private final int libraryCards;
+
+    public FacultyDeleteReport(int facultyId, int faculties, int cohorts, int courses, int students, int results, int libraryCards) {
+        this.facultyId = facultyId;
+        this.faculties = faculties;
+        this.cohorts = cohorts;
+        this.courses = courses;
+        this.students = students;
+        this.results = results;
+        this.libraryCards = libraryCards;
+    }
+
+    public int getFacultyId() {
+        return facultyId;
+    }
+
+    public int getFaculties() {
+        return faculties;
+    }
+
+    public int getCohorts() {
+        return cohorts;
+    }
+
+    public int getCourses() {
+        return courses;
+    }
+
+    public int getStudents() {
+        return students;
+    }
+
+    public int getResults() {
+        return results;
+    }
+
+    public int getLibraryCards() {
+        return libraryCards;
+    }
+}
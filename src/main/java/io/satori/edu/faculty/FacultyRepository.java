@@ -1,9 +1,11 @@
 package io.satori.edu.faculty;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +13,17 @@ public interface FacultyRepository extends JpaRepository<Faculty,Integer> {
 
     @Query("SELECT f FROM Faculty f WHERE f.name = ?1")
     Optional<Faculty> findFacultyByName(String name);
+
+    //Single-row delete without loading the entity, the count tells whether it existed
+    @Modifying
+    @Query(value = "DELETE FROM faculty WHERE id = ?1", nativeQuery = true)
+    int deleteFacultyById(int facultyId);
+
+    //id, name - scalar rows for the reference data snapshot
+    @Query("SELECT f.id, f.name FROM Faculty f")
+    List<Object[]> findAllFacultyRows();
+
+    //id, name of one faculty - fills a reference data miss without a full reload
+    @Query("SELECT f.id, f.name FROM Faculty f WHERE f.id = ?1")
+    List<Object[]> findFacultyRow(int facultyId);
 }
@@ -1,34 +1,81 @@
 package io.satori.edu.faculty;
 
+import io.satori.edu.audit.AuditAction;
+import io.satori.edu.audit.AuditLog;
+import io.satori.edu.cohort.CohortRepository;
+import io.satori.edu.course.CourseRepository;
 import io.satori.edu.exception.APIEntityNotFoundException;
 import io.satori.edu.exception.BadRequestException;
+import io.satori.edu.librarycard.LibraryCardRepository;
+import io.satori.edu.referencedata.FacultyRef;
+import io.satori.edu.referencedata.ReferenceDataCache;
+import io.satori.edu.result.GradeDistribution;
+import io.satori.edu.result.ResultRepository;
+import io.satori.edu.search.SearchService;
+import io.satori.edu.search.SearchType;
+import io.satori.edu.student.StudentRepository;
+import io.satori.edu.student.TranscriptCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class FacultyService {
 
     private final FacultyRepository facultyRepository;
+    private final CohortRepository cohortRepository;
+    private final CourseRepository courseRepository;
+    private final StudentRepository studentRepository;
+    private final ResultRepository resultRepository;
+    private final LibraryCardRepository libraryCardRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final GradeDistribution gradeDistribution;
+    private final TranscriptCache transcriptCache;
+    private final SearchService searchService;
+    private final AuditLog auditLog;
 
     @Autowired
-    public FacultyService(FacultyRepository repository) {
+    public FacultyService(FacultyRepository repository, CohortRepository cohortRepository, CourseRepository courseRepository,
+                          StudentRepository studentRepository, ResultRepository resultRepository,
+                          LibraryCardRepository libraryCardRepository, ReferenceDataCache referenceDataCache,
+                          GradeDistribution gradeDistribution, TranscriptCache transcriptCache, SearchService searchService,
+                          AuditLog auditLog) {
         this.facultyRepository = repository;
+        this.cohortRepository = cohortRepository;
+        this.courseRepository = courseRepository;
+        this.studentRepository = studentRepository;
+        this.resultRepository = resultRepository;
+        this.libraryCardRepository = libraryCardRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.gradeDistribution = gradeDistribution;
+        this.transcriptCache = transcriptCache;
+        this.searchService = searchService;
+        this.auditLog = auditLog;
     }
 
     public List<Faculty> getFaculty()
     {
-        return facultyRepository.findAll();
+        return referenceDataCache.snapshot().getFaculties().values().stream()
+                .map(FacultyRef::toEntity)
+                .collect(Collectors.toList());
+    }
+
+    public String getFacultiesETag()
+    {
+        return referenceDataCache.facultiesETag();
     }
 
     public Faculty getOneFaculty(Integer facultyId)
     {
-        return facultyRepository.findById(facultyId).orElseThrow(()-> new APIEntityNotFoundException("Faculty by id "+facultyId+" was not found"));
+        return referenceDataCache.findFaculty(facultyId).orElseThrow(()-> new APIEntityNotFoundException("Faculty by id "+facultyId+" was not found"));
     }
 
+    @Transactional
     public void addFaculty(Faculty faculty) {
         Optional<Faculty> facultyByName = facultyRepository.findFacultyByName(faculty.getName());
         if(facultyByName.isPresent()) //if name of faculty is present in database
@@ -36,20 +83,50 @@ public class FacultyService {
             throw new BadRequestException("Name already exist in database");
         }
         facultyRepository.save(faculty);
-        System.out.println(faculty);
+        referenceDataCache.reloadAfterCommit();
+        searchService.putAfterCommit(SearchType.FACULTY, faculty.getId(), faculty.getName(), null);
+        auditLog.record(AuditAction.CREATE, "Faculty", faculty.getId());
     }
 
-    public void deleteFaculty(Integer facultyId)
+    /**
+     * Deletes the faculty with its cohorts, courses, students, results and library cards: one DELETE per table,
+     * children first, instead of loading the faculty's subtree and removing it row by row.
+     */
+    @Transactional
+    public FacultyDeleteReport deleteFaculty(Integer facultyId)
     {
-        boolean exists = facultyRepository.existsById(facultyId);
-        if(!exists)
+        //What goes away is read first, so the in-memory grade counters and search index only lose these rows
+        List<Integer> courseIds = courseRepository.lockIdsByFaculty(facultyId);
+        List<Integer> cohortIds = cohortRepository.findIdsByFaculty(facultyId);
+        List<Integer> studentIds = studentRepository.lockIdsByFaculty(facultyId);
+        List<Object[]> grades = resultRepository.countOtherFacultyGradesByFaculty(facultyId);
+        int libraryCards = libraryCardRepository.deleteByFaculty(facultyId);
+        int results = resultRepository.deleteByFaculty(facultyId);
+        int students = studentRepository.deleteByFaculty(facultyId);
+        int cohorts = cohortRepository.deleteByFaculty(facultyId);
+        int courses = courseRepository.deleteByFaculty(facultyId);
+        int faculties = facultyRepository.deleteFacultyById(facultyId);
+        if(faculties == 0) //nothing above matched either, the rollback is free
         {
             throw new APIEntityNotFoundException("faculty with id = "+facultyId+ " does not exist in database");
         }
-        System.out.println("faculty with id = "+facultyId+" has been delete");
-        facultyRepository.deleteById(facultyId);
+        referenceDataCache.reloadAfterCommit();
+        transcriptCache.clearAfterCommit();
+        for (Integer courseId : courseIds) {
+            gradeDistribution.forgetCourse(courseId);
+        }
+        for (Object[] grade : grades) {
+            gradeDistribution.recordAdded((Integer) grade[0], (Integer) grade[1], -((Number) grade[2]).intValue());
+        }
+        searchService.removeAllAfterCommit(SearchType.COURSE, courseIds);
+        searchService.removeAllAfterCommit(SearchType.COHORT, cohortIds);
+        searchService.removeAllAfterCommit(SearchType.STUDENT, studentIds);
+        searchService.removeAfterCommit(SearchType.FACULTY, facultyId);
+        auditLog.record(AuditAction.DELETE, "Faculty", facultyId);
+        return new FacultyDeleteReport(facultyId, faculties, cohorts, courses, students, results, libraryCards);
     }
 
+    @Transactional
     public void updateFaculty(Faculty faculty)
     {
         Faculty faculty_db = facultyRepository.findById(faculty.getId()).orElseThrow(() -> new APIEntityNotFoundException("Faculty by id "+faculty.getId()+" was not found"));
@@ -65,6 +142,10 @@ public class FacultyService {
             faculty.setName(faculty.getName());
         }
         facultyRepository.save(faculty);
+        referenceDataCache.reloadAfterCommit();
+        transcriptCache.clearAfterCommit();
+        searchService.putAfterCommit(SearchType.FACULTY, faculty.getId(), faculty.getName(), null);
+        auditLog.record(AuditAction.UPDATE, "Faculty", faculty.getId());
     }
 //    @Transactional
 //    public void updateFaculty(Integer facultyId, String name)
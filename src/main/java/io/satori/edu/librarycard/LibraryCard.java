@@ -1,6 +1,8 @@
 package io.satori.edu.librarycard;
 
 import io.satori.edu.student.Student;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
@@ -20,7 +22,7 @@ public class LibraryCard {
     @Id
     @SequenceGenerator(name = "library_card_sequence",
                         sequenceName = "library_card_sequence",
-                        allocationSize = 1) //generate sequence with id auto increment begin 1
+                        allocationSize = 50) //reserve a block of 50 ids per sequence call (pooled-lo optimizer)
     @GeneratedValue(strategy = GenerationType.SEQUENCE,
                     generator = "library_card_sequence") //use sequence is just defined above
     @Column(name = "id",
@@ -39,6 +41,7 @@ public class LibraryCard {
     @JoinColumn(name = "student_id",   //foreign key column
                 referencedColumnName = "id", unique = true,
                 foreignKey = @ForeignKey(name = "fk_student_library_card")) //name of foreign key
+    @OnDelete(action = OnDeleteAction.CASCADE) //deleting a student deletes its card in the database
     private Student student;
 
     public LibraryCard() {
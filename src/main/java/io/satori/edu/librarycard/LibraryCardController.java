@@ -2,6 +2,7 @@ package io.satori.edu.librarycard;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -18,9 +19,10 @@ public class LibraryCardController {
     }
 
     @GetMapping
-    public List<LibraryCard> getAllLibraryCard()
+    public ResponseEntity<List<LibraryCard>> getAllLibraryCard(@RequestParam(required = false) Integer after,
+                                                               @RequestParam(required = false) Integer limit)
     {
-        return libraryCardService.getAllLibraryCard();
+        return libraryCardService.getAllLibraryCard(after, limit).toResponseEntity();
     }
 
     @GetMapping(path = "/get/{libraryId}")
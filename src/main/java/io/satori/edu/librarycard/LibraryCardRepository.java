@@ -1,9 +1,12 @@
 package io.satori.edu.librarycard;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +14,25 @@ public interface LibraryCardRepository extends JpaRepository<LibraryCard,Integer
 
     @Query("SELECT c FROM LibraryCard c WHERE c.card_number = ?1 ")
     Optional<LibraryCard >findLibraryCardByCardNumber(String card_number);
+
+    //Single-row delete without loading the entity, the count tells whether it existed
+    @Modifying
+    @Query(value = "DELETE FROM library_card WHERE id = ?1", nativeQuery = true)
+    int deleteLibraryCardById(int libraryCardId);
+
+    //Set-based cascading deletes, run before the students go (library_card.student_id is ON DELETE CASCADE
+    //as well, deleting the cards first only makes their count known)
+    @Modifying
+    @Query(value = "DELETE FROM library_card WHERE student_id IN (SELECT s.id FROM student s WHERE s.Cohort_id = ?1)", nativeQuery = true)
+    int deleteByCohort(int cohortId);
+
+    @Modifying
+    @Query(value = "DELETE FROM library_card WHERE student_id IN (SELECT s.id FROM student s " +
+            "WHERE s.Cohort_id IN (SELECT c.id FROM cohort c WHERE c.faculty_id = ?1))", nativeQuery = true)
+    int deleteByFaculty(int facultyId);
+
+    //Keyset pagination: seek on the primary key, Pageable only supplies the LIMIT
+    @Query("SELECT l FROM LibraryCard l LEFT JOIN FETCH l.student s LEFT JOIN FETCH s.cohort c LEFT JOIN FETCH c.faculty " +
+            "WHERE l.id > ?1 ORDER BY l.id")
+    List<LibraryCard> findLibraryCardPageAfter(int afterId, Pageable pageable);
 }
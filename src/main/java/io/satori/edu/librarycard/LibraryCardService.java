@@ -1,10 +1,14 @@
 package io.satori.edu.librarycard;
 
+import io.satori.edu.audit.AuditAction;
+import io.satori.edu.audit.AuditLog;
 import io.satori.edu.exception.APIEntityNotFoundException;
 import io.satori.edu.exception.BadRequestException;
+import io.satori.edu.pagination.CursorPage;
 import io.satori.edu.student.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Objects;
@@ -15,23 +19,29 @@ public class LibraryCardService {
 
     private final LibraryCardRepository libraryCardRepository;
     private final StudentRepository studentRepository;
+    private final AuditLog auditLog;
 
     @Autowired
-    public LibraryCardService(LibraryCardRepository libraryCardRepository, StudentRepository studentRepository) {
+    public LibraryCardService(LibraryCardRepository libraryCardRepository, StudentRepository studentRepository, AuditLog auditLog) {
         this.libraryCardRepository = libraryCardRepository;
         this.studentRepository = studentRepository;
+        this.auditLog = auditLog;
     }
 
-    public List<LibraryCard> getAllLibraryCard()
+    @Transactional(readOnly = true)
+    public CursorPage<LibraryCard> getAllLibraryCard(Integer after, Integer limit)
     {
-        return libraryCardRepository.findAll();
+        List<LibraryCard> rows = libraryCardRepository.findLibraryCardPageAfter(after == null ? 0 : after, CursorPage.limitPlusOne(limit));
+        return CursorPage.of(rows, limit, libraryCard -> String.valueOf(libraryCard.getId()));
     }
 
+    @Transactional(readOnly = true)
     public LibraryCard getOneLibraryCard(Integer libraryId)
     {
         return libraryCardRepository.findById(libraryId).orElseThrow(()-> new APIEntityNotFoundException("Library with id "+libraryId+" was not found"));
     }
 
+    @Transactional
     public void addLibraryCard(LibraryCard libraryCard, Integer studentId)
     {
         boolean exists = studentRepository.existsById(studentId);//check if student already have in student table
@@ -51,22 +61,23 @@ public class LibraryCardService {
         }
         libraryCard.setStudent(studentRepository.getById(studentId));
         libraryCardRepository.save(libraryCard);
-        System.out.println(libraryCard);
+        auditLog.record(AuditAction.CREATE, "LibraryCard", libraryCard.getId());
 
     }
 
+    @Transactional
     public void deleteLibrary(Integer libraryId)
     {
-        boolean exists = libraryCardRepository.existsById(libraryId); //check if student already have in library table
-        if(!exists)
+        int deleted = libraryCardRepository.deleteLibraryCardById(libraryId);
+        if(deleted == 0)
         {
             throw new APIEntityNotFoundException("library with id "+libraryId+" was not found");
         }
-        System.out.println("library with id "+libraryId+" has been delete");
-        libraryCardRepository.deleteById(libraryId);
+        auditLog.record(AuditAction.DELETE, "LibraryCard", libraryId);
 
     }
 
+    @Transactional
     public void updateLibrary(Integer libraryId, String card_number)
     {
          LibraryCard libraryCard = libraryCardRepository.findById(libraryId).orElseThrow(()-> new APIEntityNotFoundException("library with id "+libraryId+" was not found"));
@@ -80,6 +91,7 @@ public class LibraryCardService {
              libraryCard.setCard_number(card_number);
          }
          libraryCardRepository.save(libraryCard);
+         auditLog.record(AuditAction.UPDATE, "LibraryCard", libraryId);
 
     }
 
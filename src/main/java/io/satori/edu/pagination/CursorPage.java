@@ -0,0 +1,83 @@
+package io.satori.edu.pagination;
+
+import io.satori.edu.exception.BadRequestException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (seek) paginated list.
+ * The client passes the last seen key back as {@code ?after=} to get the next page,
+ * so the database always starts from an index seek instead of skipping OFFSET rows.
+ */
+public class CursorPage<T> {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Build a page from rows fetched with {@link #limitPlusOne(Integer)}.
+     * The extra row is only used to know if there is a next page and is dropped here.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, Integer limit, Function<T, String> cursorOf) {
+        int size = resolveLimit(limit);
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, cursorOf.apply(items.get(size - 1)));
+    }
+
+    /**
+     * Fetch one row more than requested, always from the first "page" of the seek query (no OFFSET).
+     */
+    public static Pageable limitPlusOne(Integer limit) {
+        return PageRequest.of(0, resolveLimit(limit) + 1);
+    }
+
+    public static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * The body stays a plain JSON array and the cursor travels in a header. Callers that ignore
+     * the header only get the first {@link #DEFAULT_LIMIT} rows, so list clients must follow it.
+     */
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(items);
+    }
+}
@@ -0,0 +1,27 @@
+package io.satori.edu.projection;
+
+/**
+ * Id and name of a related entity, used by list payloads instead of the full entity graph.
+ */
+public class NamedRef {
+
+    private final Integer id;
+    private final String name;
+
+    public NamedRef(Integer id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public static NamedRef of(Integer id, String name) {
+        return id == null ? null : new NamedRef(id, name);
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,57 @@
+package io.satori.edu.referencedata;
+
+import io.satori.edu.cohort.Cohort;
+
+import java.util.Objects;
+
+/**
+ * Immutable cohort row of the reference data snapshot, with the faculty it belongs to.
+ * Callers get a fresh {@link Cohort} from {@link #toEntity()}, never the shared value itself.
+ */
+public final class CohortRef {
+
+    private final int id;
+    private final String name;
+    private final FacultyRef faculty; //null when the cohort has no faculty
+
+    public CohortRef(int id, String name, FacultyRef faculty) {
+        this.id = id;
+        this.name = name;
+        this.faculty = faculty;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public FacultyRef getFaculty() {
+        return faculty;
+    }
+
+    public Cohort toEntity() {
+        Cohort cohort = new Cohort(name, faculty == null ? null : faculty.toEntity());
+        cohort.setId(id);
+        return cohort;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CohortRef)) {
+            return false;
+        }
+        CohortRef other = (CohortRef) o;
+        return id == other.id && Objects.equals(name, other.name) && Objects.equals(faculty, other.faculty);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, faculty);
+    }
+}
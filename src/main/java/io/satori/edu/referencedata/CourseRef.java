@@ -0,0 +1,57 @@
+package io.satori.edu.referencedata;
+
+import io.satori.edu.course.Course;
+
+import java.util.Objects;
+
+/**
+ * Immutable course row of the reference data snapshot, with the faculty it belongs to.
+ * Callers get a fresh {@link Course} from {@link #toEntity()}, never the shared value itself.
+ */
+public final class CourseRef {
+
+    private final int id;
+    private final String name;
+    private final FacultyRef faculty; //null when the course has no faculty
+
+    public CourseRef(int id, String name, FacultyRef faculty) {
+        this.id = id;
+        this.name = name;
+        this.faculty = faculty;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public FacultyRef getFaculty() {
+        return faculty;
+    }
+
+    public Course toEntity() {
+        Course course = new Course(name, faculty == null ? null : faculty.toEntity());
+        course.setId(id);
+        return course;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CourseRef)) {
+            return false;
+        }
+        CourseRef other = (CourseRef) o;
+        return id == other.id && Objects.equals(name, other.name) && Objects.equals(faculty, other.faculty);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, faculty);
+    }
+}
@@ -0,0 +1,51 @@
+package io.satori.edu.referencedata;
+
+import io.satori.edu.faculty.Faculty;
+
+import java.util.Objects;
+
+/**
+ * Immutable faculty row of the reference data snapshot.
+ * Callers get a fresh {@link Faculty} from {@link #toEntity()}, never the shared value itself.
+ */
+public final class FacultyRef {
+
+    private final int id;
+    private final String name;
+
+    public FacultyRef(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Faculty toEntity() {
+        Faculty faculty = new Faculty(name);
+        faculty.setId(id);
+        return faculty;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FacultyRef)) {
+            return false;
+        }
+        FacultyRef other = (FacultyRef) o;
+        return id == other.id && Objects.equals(name, other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name);
+    }
+}
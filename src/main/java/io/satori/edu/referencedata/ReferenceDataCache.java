@@ -0,0 +1,232 @@
+package io.satori.edu.referencedata;
+
+import io.satori.edu.cohort.Cohort;
+import io.satori.edu.cohort.CohortRepository;
+import io.satori.edu.course.Course;
+import io.satori.edu.course.CourseRepository;
+import io.satori.edu.datasource.ReadWriteRoutingDataSource;
+import io.satori.edu.faculty.Faculty;
+import io.satori.edu.faculty.FacultyRepository;
+import io.satori.edu.transaction.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-process, fully replicated copy of faculties, cohorts and courses.
+ * Readers get the current immutable snapshot without touching the database, and every entity handed out
+ * is a fresh copy built from it, so callers may modify or attach it without affecting anyone else. Every write in
+ * FacultyService, CohortService and CourseService rebuilds the snapshot once its transaction commits,
+ * and a periodic refresh picks up writes made by other nodes.
+ * Each table also has a modification counter, bumped whenever a reload finds it changed,
+ * from which the list endpoints derive strong ETags for conditional GETs.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    private final FacultyRepository facultyRepository;
+    private final CohortRepository cohortRepository;
+    private final CourseRepository courseRepository;
+
+    private final AtomicReference<ReferenceDataSnapshot> snapshot = new AtomicReference<>(ReferenceDataSnapshot.EMPTY);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong lastReloadMillis = new AtomicLong();
+    //Misses on rows written by other nodes queue at most one background reload
+    private final AtomicBoolean reloadQueued = new AtomicBoolean();
+    private final ExecutorService reloader = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "reference-data-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+    //Counters restart with the process, so tags of different runs must never collide
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    @Autowired
+    public ReferenceDataCache(FacultyRepository facultyRepository, CohortRepository cohortRepository, CourseRepository courseRepository) {
+        this.facultyRepository = facultyRepository;
+        this.cohortRepository = cohortRepository;
+        this.courseRepository = courseRepository;
+    }
+
+    public ReferenceDataSnapshot snapshot() {
+        hits.increment();
+        return snapshot.get();
+    }
+
+    public Optional<Faculty> findFaculty(int facultyId) {
+        return find(current -> current.getFaculties().get(facultyId),
+                () -> facultyRepository.findFacultyRow(facultyId).stream().findFirst().map(ReferenceDataCache::facultyRef))
+                .map(FacultyRef::toEntity);
+    }
+
+    public Optional<Cohort> findCohort(int cohortId) {
+        return find(current -> current.getCohorts().get(cohortId),
+                () -> cohortRepository.findCohortRow(cohortId).stream().findFirst().map(ReferenceDataCache::cohortRef))
+                .map(CohortRef::toEntity);
+    }
+
+    public Optional<Course> findCourse(int courseId) {
+        return find(current -> current.getCourses().get(courseId),
+                () -> courseRepository.findCourseRow(courseId).stream().findFirst().map(ReferenceDataCache::courseRef))
+                .map(CourseRef::toEntity);
+    }
+
+    public String facultiesETag() {
+        return eTag("faculties", snapshot.get().getFacultiesVersion());
+    }
+
+    public String cohortsETag() {
+        return eTag("cohorts", snapshot.get().getCohortsVersion());
+    }
+
+    public String coursesETag() {
+        return eTag("courses", snapshot.get().getCoursesVersion());
+    }
+
+    private String eTag(String table, long version) {
+        return "\"" + table + "-" + epoch + "-" + version + "\"";
+    }
+
+    /**
+     * A miss reads just that row from the primary: it may have been written by another node since the last refresh.
+     * When it exists the snapshot is stale, so a full reload is queued in the background instead of on the caller's thread.
+     */
+    private <T> Optional<T> find(Function<ReferenceDataSnapshot, T> lookup, Supplier<Optional<T>> loadRow) {
+        T value = lookup.apply(snapshot.get());
+        if (value != null) {
+            hits.increment();
+            return Optional.of(value);
+        }
+        misses.increment();
+        Optional<T> row = ReadWriteRoutingDataSource.onPrimary(loadRow);
+        row.ifPresent(found -> reloadInBackground());
+        return row;
+    }
+
+    void reloadInBackground() {
+        if (!reloadQueued.compareAndSet(false, true)) {
+            return; //the queued reload will see this row too
+        }
+        reloader.execute(() -> {
+            reloadQueued.set(false);
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                log.warn("Background reference data reload failed, the periodic refresh will retry", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        reloader.shutdownNow();
+    }
+
+    /**
+     * Rebuild the snapshot once the current transaction commits, or right away when there is none.
+     */
+    public void reloadAfterCommit() {
+        AfterCommit.run(this::reload);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @Scheduled(initialDelayString = "${reference-data.refresh-interval-ms:60000}",
+               fixedDelayString = "${reference-data.refresh-interval-ms:60000}")
+    public void refresh() {
+        reload();
+    }
+
+    /**
+     * Synchronized so a reload that started earlier can never replace the snapshot of a later one.
+     * Scalar queries are used so the copies never come from a stale persistence context,
+     * and they go to the primary so the copies never come from a lagging replica either.
+     */
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        ReferenceDataSnapshot loaded = ReadWriteRoutingDataSource.onPrimary(this::load);
+        snapshot.set(loaded);
+        reloads.incrementAndGet();
+        lastReloadMillis.set((System.nanoTime() - start) / 1_000_000);
+        log.debug("Reference data reloaded: {} faculties, {} cohorts, {} courses",
+                loaded.getFaculties().size(), loaded.getCohorts().size(), loaded.getCourses().size());
+    }
+
+    private ReferenceDataSnapshot load() {
+        TreeMap<Integer, FacultyRef> faculties = new TreeMap<>();
+        for (Object[] row : facultyRepository.findAllFacultyRows()) {
+            FacultyRef faculty = facultyRef(row);
+            faculties.put(faculty.getId(), faculty);
+        }
+        TreeMap<Integer, CohortRef> cohorts = new TreeMap<>();
+        for (Object[] row : cohortRepository.findAllCohortRows()) {
+            CohortRef cohort = new CohortRef((Integer) row[0], (String) row[1], faculties.get((Integer) row[2]));
+            cohorts.put(cohort.getId(), cohort);
+        }
+        TreeMap<Integer, CourseRef> courses = new TreeMap<>();
+        for (Object[] row : courseRepository.findAllCourseRows()) {
+            CourseRef course = new CourseRef((Integer) row[0], (String) row[1], faculties.get((Integer) row[2]));
+            courses.put(course.getId(), course);
+        }
+        ReferenceDataSnapshot previous = snapshot.get();
+        return new ReferenceDataSnapshot(faculties, cohorts, courses,
+                nextVersion(previous.getFacultiesVersion(), previous.getFaculties(), faculties),
+                nextVersion(previous.getCohortsVersion(), previous.getCohorts(), cohorts), //a cohort equals another only with the same faculty, which is serialized with it
+                nextVersion(previous.getCoursesVersion(), previous.getCourses(), courses),
+                Instant.now());
+    }
+
+    /**
+     * Bump the version only when the table really changed, so a periodic refresh that finds nothing new
+     * keeps every client's cached copy valid, while a write from any node still invalidates it.
+     */
+    private static <T> long nextVersion(long version, Map<Integer, T> before, Map<Integer, T> after) {
+        return before.equals(after) ? version : version + 1;
+    }
+
+    private static FacultyRef facultyRef(Object[] row) {
+        return facultyRef(row[0], row[1]);
+    }
+
+    private static FacultyRef facultyRef(Object id, Object name) {
+        return id == null ? null : new FacultyRef((Integer) id, (String) name);
+    }
+
+    //id, name, faculty id, faculty name - the single-row miss queries carry the faculty along
+    private static CohortRef cohortRef(Object[] row) {
+        return new CohortRef((Integer) row[0], (String) row[1], facultyRef(row[2], row[3]));
+    }
+
+    private static CourseRef courseRef(Object[] row) {
+        return new CourseRef((Integer) row[0], (String) row[1], facultyRef(row[2], row[3]));
+    }
+
+    public ReferenceDataStats getStats() {
+        return new ReferenceDataStats(hits.sum(), misses.sum(), reloads.get(), lastReloadMillis.get(), snapshot.get());
+    }
+}
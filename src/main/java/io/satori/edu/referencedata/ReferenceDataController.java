@@ -0,0 +1,33 @@
+package io.satori.edu.referencedata;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(path = "/api/v1/reference-data")
+public class ReferenceDataController {
+
+    private final ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    public ReferenceDataController(ReferenceDataCache referenceDataCache) {
+        this.referenceDataCache = referenceDataCache;
+    }
+
+    @GetMapping(path = "/stats")
+    public ResponseEntity<ReferenceDataStats> getStats()
+    {
+        return ResponseEntity.ok(referenceDataCache.getStats());
+    }
+
+    @PostMapping(path = "/reload") //force a reload, e.g. after changing reference tables by hand
+    public ResponseEntity<ReferenceDataStats> reload()
+    {
+        referenceDataCache.reload();
+        return ResponseEntity.ok(referenceDataCache.getStats());
+    }
+}
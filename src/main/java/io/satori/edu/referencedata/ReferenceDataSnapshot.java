@@ -0,0 +1,65 @@
+package io.satori.edu.referencedata;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable copy of every faculty, cohort and course, keyed and ordered by id.
+ * The rows are immutable values shared by all readers; anything handed to callers is built from them.
+ */
+public final class ReferenceDataSnapshot {
+
+    static final ReferenceDataSnapshot EMPTY = new ReferenceDataSnapshot(new TreeMap<>(), new TreeMap<>(), new TreeMap<>(), 0, 0, 0, Instant.EPOCH);
+
+    private final NavigableMap<Integer, FacultyRef> faculties;
+    private final NavigableMap<Integer, CohortRef> cohorts;
+    private final NavigableMap<Integer, CourseRef> courses;
+    private final long facultiesVersion;
+    private final long cohortsVersion;
+    private final long coursesVersion;
+    private final Instant loadedAt;
+
+    ReferenceDataSnapshot(TreeMap<Integer, FacultyRef> faculties, TreeMap<Integer, CohortRef> cohorts, TreeMap<Integer, CourseRef> courses,
+                          long facultiesVersion, long cohortsVersion, long coursesVersion, Instant loadedAt) {
+        this.faculties = Collections.unmodifiableNavigableMap(faculties);
+        this.cohorts = Collections.unmodifiableNavigableMap(cohorts);
+        this.courses = Collections.unmodifiableNavigableMap(courses);
+        this.facultiesVersion = facultiesVersion;
+        this.cohortsVersion = cohortsVersion;
+        this.coursesVersion = coursesVersion;
+        this.loadedAt = loadedAt;
+    }
+
+    public NavigableMap<Integer, FacultyRef> getFaculties() {
+        return faculties;
+    }
+
+    public NavigableMap<Integer, CohortRef> getCohorts() {
+        return cohorts;
+    }
+
+    public NavigableMap<Integer, CourseRef> getCourses() {
+        return courses;
+    }
+
+    /**
+     * Modification counters, bumped by every reload that finds the table changed.
+     */
+    public long getFacultiesVersion() {
+        return facultiesVersion;
+    }
+
+    public long getCohortsVersion() {
+        return cohortsVersion;
+    }
+
+    public long getCoursesVersion() {
+        return coursesVersion;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+}
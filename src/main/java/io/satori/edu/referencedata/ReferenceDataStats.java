@@ -0,0 +1,61 @@
+package io.satori.edu.referencedata;
+
+import java.time.Instant;
+
+/**
+ * Counters of the reference data cache, served by GET /api/v1/reference-data/stats.
+ */
+public class ReferenceDataStats {
+
+    private final long hits;
+    private final long misses;
+    private final long reloads;
+    private final long lastReloadMillis;
+    private final Instant loadedAt;
+    private final int faculties;
+    private final int cohorts;
+    private final int courses;
+
+    public ReferenceDataStats(long hits, long misses, long reloads, long lastReloadMillis, ReferenceDataSnapshot snapshot) {
+        this.hits = hits;
+        this.misses = misses;
+        this.reloads = reloads;
+        this.lastReloadMillis = lastReloadMillis;
+        this.loadedAt = snapshot.getLoadedAt();
+        this.faculties = snapshot.getFaculties().size();
+        this.cohorts = snapshot.getCohorts().size();
+        this.courses = snapshot.getCourses().size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getReloads() {
+        return reloads;
+    }
+
+    public long getLastReloadMillis() {
+        return lastReloadMillis;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    public int getFaculties() {
+        return faculties;
+    }
+
+    public int getCohorts() {
+        return cohorts;
+    }
+
+    public int getCourses() {
+        return courses;
+    }
+}
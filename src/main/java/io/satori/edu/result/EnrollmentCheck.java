@@ -0,0 +1,26 @@
+package io.satori.edu.result;
+
+/**
+ * Everything ResultService.addResult needs to validate an enrollment, read in one round trip.
+ * Student and course columns are null when that id does not exist.
+ */
+public interface EnrollmentCheck {
+
+    Integer getStudentId();
+
+    Integer getStudentFacultyId();
+
+    String getStudentFacultyName();
+
+    Integer getCourseId();
+
+    Integer getCourseFacultyId();
+
+    String getCourseFacultyName();
+
+    Long getEnrollmentCount();
+
+    default boolean isEnrolled() {
+        return getEnrollmentCount() != null && getEnrollmentCount() > 0;
+    }
+}
@@ -0,0 +1,35 @@
+package io.satori.edu.result;
+
+/**
+ * Outcome of enrolling a whole cohort in a course: students newly enrolled, and students that already were.
+ */
+public class EnrollmentReport {
+
+    private final int courseId;
+    private final int cohortId;
+    private final int inserted;
+    private final int skipped;
+
+    public EnrollmentReport(int courseId, int cohortId, int inserted, int skipped) {
+        this.courseId = courseId;
+        this.cohortId = cohortId;
+        this.inserted = inserted;
+        this.skipped = skipped;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public int getCohortId() {
+        return cohortId;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+}
@@ -0,0 +1,47 @@
+package io.satori.edu.result;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a course-wide grade update: how many grades changed, and the students that have no result in the course.
+ */
+public class GradeBatchReport {
+
+    private final int courseId;
+    private int updated;
+    private int unchanged;
+    private final List<Integer> notEnrolled = new ArrayList<>();
+
+    public GradeBatchReport(int courseId) {
+        this.courseId = courseId;
+    }
+
+    void updated() {
+        updated++;
+    }
+
+    void unchanged() {
+        unchanged++;
+    }
+
+    void notEnrolled(int studentId) {
+        notEnrolled.add(studentId);
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public List<Integer> getNotEnrolled() {
+        return notEnrolled;
+    }
+}
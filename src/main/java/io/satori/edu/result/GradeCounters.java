@@ -0,0 +1,62 @@
+package io.satori.edu.result;
+
+/**
+ * Grade counts of one course in a Fenwick (binary indexed) tree over the grade scale.
+ * Updates and prefix counts touch at most log2(11) + 1 = 4 cells, and the mean comes from a running sum.
+ * Not thread safe, GradeDistribution synchronizes access.
+ */
+class GradeCounters {
+
+    private static final int SIZE = Result.MAX_GRADE - Result.MIN_GRADE + 1;
+
+    private final long[] tree = new long[SIZE + 1]; //1-based, cell i covers the grades (i - lowbit(i), i]
+    private long count;
+    private long sum;
+
+    void add(int grade, long delta)
+    {
+        for (int i = grade - Result.MIN_GRADE + 1; i <= SIZE; i += i & -i) {
+            tree[i] += delta;
+        }
+        count += delta;
+        sum += grade * delta;
+    }
+
+    long count()
+    {
+        return count;
+    }
+
+    long sum()
+    {
+        return sum;
+    }
+
+    //Number of grades <= grade
+    long countAtMost(int grade)
+    {
+        long total = 0;
+        for (int i = Math.min(grade - Result.MIN_GRADE + 1, SIZE); i > 0; i -= i & -i) {
+            total += tree[i];
+        }
+        return total;
+    }
+
+    long countOf(int grade)
+    {
+        return countAtMost(grade) - countAtMost(grade - 1);
+    }
+
+    //The k-th smallest grade (1-based), found by descending the tree instead of scanning the counts
+    int kth(long k)
+    {
+        int position = 0;
+        for (int step = Integer.highestOneBit(SIZE); step > 0; step >>= 1) {
+            if (position + step <= SIZE && tree[position + step] < k) {
+                position += step;
+                k -= tree[position];
+            }
+        }
+        return position + Result.MIN_GRADE; //position + 1 is the 1-based cell of the answer
+    }
+}
@@ -0,0 +1,173 @@
+package io.satori.edu.result;
+
+import io.satori.edu.datasource.ReadWriteRoutingDataSource;
+import io.satori.edu.transaction.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Per-course grade counters, so grade statistics never scan the result table.
+ * Built with one GROUP BY on startup, then kept current by the write paths: every change is applied
+ * once its transaction commits, so a rolled back write never shows up in the counts.
+ * A periodic rebuild picks up results written by other nodes and repairs any drift.
+ */
+@Component
+public class GradeDistribution {
+
+    private static final Logger log = LoggerFactory.getLogger(GradeDistribution.class);
+
+    private final ResultRepository resultRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Integer, GradeCounters> courses = new HashMap<>(); //guarded by lock
+    //Changes committed while a rebuild is loading, replayed on the rebuilt counters; null when no rebuild runs
+    private List<Consumer<Map<Integer, GradeCounters>>> pending; //guarded by lock
+
+    @Autowired
+    public GradeDistribution(ResultRepository resultRepository) {
+        this.resultRepository = resultRepository;
+    }
+
+    public void recordAdded(int courseId, int grade) {
+        AfterCommit.run(() -> apply(counts -> add(counts, courseId, grade, 1)));
+    }
+
+    //Many results with the same grade at once, e.g. a cohort enrolled in a course; a negative count removes them
+    public void recordAdded(int courseId, int grade, int count) {
+        AfterCommit.run(() -> apply(counts -> add(counts, courseId, grade, count)));
+    }
+
+    public void recordRemoved(int courseId, int grade) {
+        AfterCommit.run(() -> apply(counts -> add(counts, courseId, grade, -1)));
+    }
+
+    //oldGrade must have been read under a row lock, or a concurrent update skews the counts until the next rebuild
+    public void recordChanged(int courseId, int oldGrade, int newGrade) {
+        AfterCommit.run(() -> apply(counts -> {
+            add(counts, courseId, oldGrade, -1);
+            add(counts, courseId, newGrade, 1);
+        }));
+    }
+
+    public void forgetCourse(int courseId) {
+        AfterCommit.run(() -> apply(counts -> counts.remove(courseId)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${grade-distribution.rebuild-interval-ms:300000}",
+               fixedDelayString = "${grade-distribution.rebuild-interval-ms:300000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    /**
+     * Counts outside the lock, so statistics keep being answered from the old counters meanwhile.
+     * Synchronized so two rebuilds never share the pending list.
+     * A change whose transaction commits just before the GROUP BY starts but is applied just after can be
+     * counted twice; the next rebuild corrects it.
+     */
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<Integer, GradeCounters> rebuilt = null;
+        try {
+            rebuilt = ReadWriteRoutingDataSource.onPrimary(this::load);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (rebuilt != null) { //a failed load keeps the old counters, which already have every change
+                    for (Consumer<Map<Integer, GradeCounters>> change : pending) {
+                        change.accept(rebuilt);
+                    }
+                    courses = rebuilt;
+                }
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.debug("Grade distribution rebuilt for {} courses", rebuilt.size());
+    }
+
+    public GradeStats getStats(int courseId, Integer grade) {
+        lock.readLock().lock();
+        try {
+            return stats(courses.getOrDefault(courseId, new GradeCounters()), courseId, grade);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Integer, GradeCounters> load() {
+        Map<Integer, GradeCounters> loaded = new HashMap<>();
+        for (Object[] row : resultRepository.countGradesByCourse()) {
+            int grade = (Integer) row[1];
+            if (grade < Result.MIN_GRADE || grade > Result.MAX_GRADE) {
+                log.warn("Result of course {} has grade {} outside {}..{}, left out of the grade statistics",
+                        row[0], grade, Result.MIN_GRADE, Result.MAX_GRADE);
+                continue;
+            }
+            loaded.computeIfAbsent((Integer) row[0], courseId -> new GradeCounters()).add(grade, (Long) row[2]);
+        }
+        return loaded;
+    }
+
+    private static GradeStats stats(GradeCounters counters, int courseId, Integer grade) {
+        long count = counters.count();
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        for (int g = Result.MIN_GRADE; g <= Result.MAX_GRADE; g++) {
+            histogram.put(g, counters.countOf(g));
+        }
+        Double mean = null;
+        Double median = null;
+        if (count > 0) {
+            mean = (double) counters.sum() / count;
+            median = (counters.kth((count + 1) / 2) + counters.kth(count / 2 + 1)) / 2.0;
+        }
+        Double percentileRank = null;
+        if (grade != null && count > 0) {
+            long below = counters.countAtMost(grade - 1);
+            long equal = grade < Result.MIN_GRADE || grade > Result.MAX_GRADE ? 0 : counters.countOf(grade);
+            percentileRank = 100.0 * (below + equal / 2.0) / count;
+        }
+        return new GradeStats(courseId, count, mean, median, histogram, grade, percentileRank);
+    }
+
+    private void apply(Consumer<Map<Integer, GradeCounters>> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(courses);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void add(Map<Integer, GradeCounters> counts, int courseId, int grade, int delta) {
+        counts.computeIfAbsent(courseId, id -> new GradeCounters()).add(grade, delta);
+    }
+}
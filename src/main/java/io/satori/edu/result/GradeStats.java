@@ -0,0 +1,62 @@
+package io.satori.edu.result;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Grade distribution of one course, see GET /api/v1/courses/{id}/grades/stats.
+ * mean and median are left out when the course has no results, grade and percentileRank unless ?grade= was asked.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GradeStats {
+
+    private final int courseId;
+    private final long count;
+    private final Double mean;
+    private final Double median;
+    private final Map<Integer, Long> histogram;
+    private final Integer grade;
+    private final Double percentileRank;
+
+    public GradeStats(int courseId, long count, Double mean, Double median, Map<Integer, Long> histogram,
+                      Integer grade, Double percentileRank) {
+        this.courseId = courseId;
+        this.count = count;
+        this.mean = mean;
+        this.median = median;
+        this.histogram = histogram;
+        this.grade = grade;
+        this.percentileRank = percentileRank;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Double getMean() {
+        return mean;
+    }
+
+    public Double getMedian() {
+        return median;
+    }
+
+    //grade -> number of results, every grade of the scale is present
+    public Map<Integer, Long> getHistogram() {
+        return histogram;
+    }
+
+    public Integer getGrade() {
+        return grade;
+    }
+
+    //Percentage of results below grade, counting results equal to grade for half
+    public Double getPercentileRank() {
+        return percentileRank;
+    }
+}
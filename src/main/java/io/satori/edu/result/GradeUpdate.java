@@ -0,0 +1,34 @@
+package io.satori.edu.result;
+
+/**
+ * One element of the JSON array sent to PUT /api/v1/courses/{courseId}/grades.
+ */
+public class GradeUpdate {
+
+    private Integer studentId;
+    private Integer grade;
+
+    public GradeUpdate() {
+    }
+
+    public GradeUpdate(Integer studentId, Integer grade) {
+        this.studentId = studentId;
+        this.grade = grade;
+    }
+
+    public Integer getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Integer studentId) {
+        this.studentId = studentId;
+    }
+
+    public Integer getGrade() {
+        return grade;
+    }
+
+    public void setGrade(Integer grade) {
+        this.grade = grade;
+    }
+}
@@ -2,13 +2,23 @@ package io.satori.edu.result;
 
 import io.satori.edu.course.Course;
 import io.satori.edu.student.Student;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import javax.persistence.*;
 
 @Entity(name = "Result")
-@Table
+@Table(indexes = {
+        @Index(
+            name = "result_grade_idx", //top-N by grade: range scan in (grade, student_id, course_id) order
+            columnList = "grade, student_id, course_id")
+})
 public class Result {
 
+    //Grade scale, GradeDistribution keeps one counter per grade in between
+    public static final int MIN_GRADE = 0;
+    public static final int MAX_GRADE = 10;
+
     @EmbeddedId
     ResultId id;
 
@@ -17,6 +27,7 @@ public class Result {
     @JoinColumn(name = "student_id",
                 referencedColumnName = "id",
                 foreignKey = @ForeignKey(name = "fk_student_result")) //foreign key
+    @OnDelete(action = OnDeleteAction.CASCADE) //deleting a student deletes its results in the database
     private Student student;
 
     @ManyToOne
@@ -24,6 +35,7 @@ public class Result {
     @JoinColumn(name = "course_id", // column foreign key
                 referencedColumnName = "id",
                 foreignKey = @ForeignKey(name = "fk_course_result")) //name of foreign key
+    @OnDelete(action = OnDeleteAction.CASCADE) //deleting a course deletes its results in the database
     private Course course;
 
     @Column(name = "grade",columnDefinition = "INT",nullable = false)
@@ -1,8 +1,12 @@
 package io.satori.edu.result;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -16,10 +20,18 @@ public class ResultController {
         this.resultService = resultService;
     }
 
-    @GetMapping
-    public List<Result> getAllResult()
+    @GetMapping //keyset page: ?after={studentId}:{courseId}&limit={page size}
+    public ResponseEntity<List<ResultSummary>> getAllResult(@RequestParam(required = false) String after,
+                                                     @RequestParam(required = false) Integer limit)
     {
-        return resultService.getAllResult();
+        return resultService.getAllResult(after, limit).toResponseEntity();
+    }
+
+    @GetMapping(path = "/export") //stream every result as application/x-ndjson, one JSON object per line
+    public void exportResults(HttpServletResponse response) throws IOException
+    {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        resultService.exportResults(response.getOutputStream());
     }
 
     @GetMapping(path = "/{resultId}")
@@ -28,10 +40,14 @@ public class ResultController {
         return resultService.getOneResult(resultId);
     }
 
-    @GetMapping(path = "/grade/{grade}")
-    public List<Result> getResultByGradeGreaterThanEqual(@PathVariable("grade") Integer grade)
+    @GetMapping(path = "/grade/{grade}") //best grades first, keyset page: ?after={grade}:{studentId}:{courseId}&limit=&courseId=&facultyId=
+    public ResponseEntity<List<ResultSummary>> getResultByGradeGreaterThanEqual(@PathVariable("grade") Integer grade,
+                                                                         @RequestParam(required = false) String after,
+                                                                         @RequestParam(required = false) Integer limit,
+                                                                         @RequestParam(required = false) Integer courseId,
+                                                                         @RequestParam(required = false) Integer facultyId)
     {
-        return resultService.getResultByGradeGreaterThanEqual(grade);
+        return resultService.getResultByGradeGreaterThanEqual(grade, after, limit, courseId, facultyId).toResponseEntity();
     }
 
     @PostMapping
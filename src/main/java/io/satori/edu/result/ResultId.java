@@ -1,5 +1,7 @@
 package io.satori.edu.result;
 
+import io.satori.edu.exception.BadRequestException;
+
 import javax.persistence.Column;
 import javax.persistence.Embeddable;
 import java.io.Serializable;
@@ -38,6 +40,23 @@ public class ResultId implements Serializable {
         this.courseId = courseId;
     }
 
+    //Composite cursor used by keyset pagination, e.g. "12:3" for studentId = 12, courseId = 3
+    public String toCursor() {
+        return studentId + ":" + courseId;
+    }
+
+    public static ResultId fromCursor(String cursor) {
+        String[] parts = cursor.split(":");
+        if (parts.length != 2) {
+            throw new BadRequestException("Cursor must have the form studentId:courseId");
+        }
+        try {
+            return new ResultId(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Cursor must have the form studentId:courseId");
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -2,29 +2,142 @@ package io.satori.edu.result;
 
 
 
+import io.satori.edu.export.NdjsonExporter;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
-public interface ResultRepository extends JpaRepository<Result,Integer> {
+public interface ResultRepository extends JpaRepository<Result,Integer>, ResultRepositoryCustom {
 
     //Check Enrolment is present
     Optional<Result> findResultByStudentIdAndCourseId(int studentId, int courseId);
 
-    //Find Result
-    @Query(value = "SELECT * FROM Result result WHERE result.student_id = ?1 AND result.course_id=?2",nativeQuery = true)
+    //Find Result, locked until commit so the grade it replaces is still the current one (GradeDistribution)
+    @Query(value = "SELECT * FROM Result result WHERE result.student_id = ?1 AND result.course_id=?2 FOR UPDATE",nativeQuery = true)
     Result findResult(int studentId, int courseId);
 
+    //Validate a new enrolment in one round trip: both sides, their faculties and the existing enrolment
+    @Query(value = "SELECT s.id AS studentId, sf.id AS studentFacultyId, sf.name AS studentFacultyName, " +
+            "c.id AS courseId, cf.id AS courseFacultyId, cf.name AS courseFacultyName, " +
+            "(SELECT COUNT(*) FROM result r WHERE r.student_id = ?1 AND r.course_id = ?2) AS enrollmentCount " +
+            "FROM (SELECT 1 AS one) params " +
+            "LEFT JOIN student s ON s.id = ?1 " +
+            "LEFT JOIN cohort sc ON sc.id = s.Cohort_id " +
+            "LEFT JOIN faculty sf ON sf.id = sc.faculty_id " +
+            "LEFT JOIN course c ON c.id = ?2 " +
+            "LEFT JOIN faculty cf ON cf.id = c.faculty_id", nativeQuery = true)
+    EnrollmentCheck checkEnrollment(int studentId, int courseId);
+
+    //Insert Enrolment without the select that save() does for an assigned @EmbeddedId
+    @Modifying
+    @Query(value = "INSERT INTO result (student_id, course_id, grade) VALUES (?1, ?2, ?3)", nativeQuery = true)
+    void insertResult(int studentId, int courseId, int grade);
+
+    //studentId, already enrolled (0/1) for every student of a cohort
+    @Query(value = "SELECT s.id, CASE WHEN r.student_id IS NULL THEN 0 ELSE 1 END FROM student s " +
+            "LEFT JOIN result r ON r.student_id = s.id AND r.course_id = ?2 " +
+            "WHERE s.Cohort_id = ?1", nativeQuery = true)
+    List<Object[]> findCohortEnrollment(int cohortId, int courseId);
+
+    //Enrol every student of a cohort that isn't enrolled yet, in one statement
+    @Modifying
+    @Query(value = "INSERT INTO result (student_id, course_id, grade) " +
+            "SELECT s.id, ?2, ?3 FROM student s WHERE s.Cohort_id = ?1 " +
+            "AND NOT EXISTS (SELECT 1 FROM result r WHERE r.student_id = s.id AND r.course_id = ?2)", nativeQuery = true)
+    int insertCohortResults(int cohortId, int courseId, int grade);
+
+    //Set-based cascading deletes: the results of a cohort's students, of a faculty's students and courses
+    @Modifying
+    @Query(value = "DELETE FROM result WHERE student_id IN (SELECT s.id FROM student s WHERE s.Cohort_id = ?1)", nativeQuery = true)
+    int deleteByCohort(int cohortId);
+
+    @Modifying
+    @Query(value = "DELETE FROM result WHERE course_id IN (SELECT c.id FROM course c WHERE c.faculty_id = ?1) " +
+            "OR student_id IN (SELECT s.id FROM student s WHERE s.Cohort_id IN (SELECT c.id FROM cohort c WHERE c.faculty_id = ?1))",
+            nativeQuery = true)
+    int deleteByFaculty(int facultyId);
+
+    //Grade of one enrolment, without loading the result with its student and course.
+    //The grades read before a delete or an update are locked until commit: the grade distribution subtracts them
+    @Query(value = "SELECT r.grade FROM result r WHERE r.student_id = ?1 AND r.course_id = ?2 FOR UPDATE", nativeQuery = true)
+    Optional<Integer> findGrade(int studentId, int courseId);
+
     //Delete Enrolment
     @Modifying
     @Query(value = "DELETE FROM Result r WHERE r.student_id = ?1 AND r.course_id = ?2",nativeQuery = true)
-    void deleteResultByStudentIdAndCourseId(int studentId,int courseId);
+    int deleteResultByStudentIdAndCourseId(int studentId,int courseId);
+
+    //courseId, grade, number of results: the whole table folded into GradeDistribution on startup
+    @Query("SELECT r.id.courseId, r.grade, COUNT(r) FROM Result r GROUP BY r.id.courseId, r.grade")
+    List<Object[]> countGradesByCourse();
+
+    //courseId, grade, number of results removed by a cohort delete, subtracted from GradeDistribution afterwards
+    @Query(value = "SELECT r.course_id, r.grade, COUNT(*) FROM result r JOIN student s ON s.id = r.student_id " +
+            "WHERE s.Cohort_id = ?1 GROUP BY r.course_id, r.grade", nativeQuery = true)
+    List<Object[]> countGradesByCohort(int cohortId);
+
+    //Same for a faculty delete, except the results in its own courses: those courses are forgotten as a whole
+    @Query(value = "SELECT r.course_id, r.grade, COUNT(*) FROM result r JOIN student s ON s.id = r.student_id " +
+            "JOIN cohort c ON c.id = s.Cohort_id JOIN course rc ON rc.id = r.course_id " +
+            "WHERE c.faculty_id = ?1 AND (rc.faculty_id IS NULL OR rc.faculty_id <> ?1) GROUP BY r.course_id, r.grade", nativeQuery = true)
+    List<Object[]> countOtherFacultyGradesByFaculty(int facultyId);
+
+    //courseId, grade of every result of a student, read before the student delete cascades over them
+    @Query(value = "SELECT r.course_id, r.grade FROM result r WHERE r.student_id = ?1 FOR UPDATE", nativeQuery = true)
+    List<Object[]> findCourseGradesOfStudent(int studentId);
+
+    //studentId, grade of the given students that have a result in the course, read before a batch grade update
+    @Query(value = "SELECT r.student_id, r.grade FROM result r WHERE r.course_id = ?1 AND r.student_id IN ?2 FOR UPDATE", nativeQuery = true)
+    List<Object[]> findGradesInCourse(int courseId, Collection<Integer> studentIds);
+
+    //Best grades first, keyset on (grade, student_id, course_id) all descending,
+    //so the database walks result_grade_idx backwards and stops at the LIMIT. Course and faculty filters are optional.
+    @Query("SELECT new io.satori.edu.result.ResultSummary(s.id, s.name, c.id, c.name, r.grade) " +
+            "FROM Result r JOIN r.student s JOIN r.course c " +
+            "WHERE r.grade >= :minGrade " +
+            "AND (r.grade < :afterGrade OR (r.grade = :afterGrade AND (r.id.studentId < :afterStudentId " +
+            "OR (r.id.studentId = :afterStudentId AND r.id.courseId < :afterCourseId)))) " +
+            "AND (:courseId IS NULL OR r.id.courseId = :courseId) " +
+            "AND (:facultyId IS NULL OR c.faculty.id = :facultyId) " +
+            "ORDER BY r.grade DESC, r.id.studentId DESC, r.id.courseId DESC")
+    List<ResultSummary> findTopResultsAfter(@Param("minGrade") int minGrade,
+                                            @Param("afterGrade") int afterGrade,
+                                            @Param("afterStudentId") int afterStudentId,
+                                            @Param("afterCourseId") int afterCourseId,
+                                            @Param("courseId") Integer courseId,
+                                            @Param("facultyId") Integer facultyId,
+                                            Pageable pageable);
+
+    //Keyset pagination on the composite key (student_id, course_id), Pageable only supplies the LIMIT
+    @Query("SELECT new io.satori.edu.result.ResultSummary(s.id, s.name, c.id, c.name, r.grade) " +
+            "FROM Result r JOIN r.student s JOIN r.course c " +
+            "WHERE r.id.studentId > ?1 OR (r.id.studentId = ?1 AND r.id.courseId > ?2) " +
+            "ORDER BY r.id.studentId, r.id.courseId")
+    List<ResultSummary> findResultPageAfter(int afterStudentId, int afterCourseId, Pageable pageable);
 
-    //SELECT e FROM Enrolment e WHERE e.grade >= ?1
-    List<Result> findResultByGradeGreaterThanEqual(int grade);
+    //Forward-only cursor for the NDJSON export, must be consumed inside a transaction
+    @QueryHints(value = {
+            @QueryHint(name = HINT_FETCH_SIZE, value = NdjsonExporter.FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")})
+    @Query("SELECT r FROM Result r " +
+            "JOIN FETCH r.student s LEFT JOIN FETCH s.cohort sc LEFT JOIN FETCH sc.faculty " +
+            "JOIN FETCH r.course c LEFT JOIN FETCH c.faculty " +
+            "ORDER BY r.id.studentId, r.id.courseId")
+    Stream<Result> streamAllResults();
 }
@@ -0,0 +1,14 @@
+package io.satori.edu.result;
+
+import java.util.List;
+
+/**
+ * Statements Spring Data can't derive, implemented with plain JDBC in {@link ResultRepositoryCustomImpl}.
+ */
+public interface ResultRepositoryCustom {
+
+    /**
+     * Set the grade of every given student in the course with one JDBC batch of UPDATEs.
+     */
+    void updateGrades(int courseId, List<GradeUpdate> updates);
+}
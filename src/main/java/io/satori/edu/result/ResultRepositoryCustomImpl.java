@@ -0,0 +1,46 @@
+package io.satori.edu.result;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * JdbcTemplate takes part in the surrounding JPA transaction (same connection), so the batch commits or
+ * rolls back with the rest of the service call. With rewriteBatchedStatements the MySQL driver sends
+ * the whole batch in one round trip.
+ */
+public class ResultRepositoryCustomImpl implements ResultRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ResultRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void updateGrades(int courseId, List<GradeUpdate> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("UPDATE result SET grade = ? WHERE student_id = ? AND course_id = ?",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        GradeUpdate update = updates.get(i);
+                        statement.setInt(1, update.getGrade());
+                        statement.setInt(2, update.getStudentId());
+                        statement.setInt(3, courseId);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return updates.size();
+                    }
+                });
+    }
+}
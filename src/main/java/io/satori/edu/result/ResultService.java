@@ -1,15 +1,32 @@
 package io.satori.edu.result;
 
+import io.satori.edu.audit.AuditAction;
+import io.satori.edu.audit.AuditLog;
+import io.satori.edu.cohort.Cohort;
+import io.satori.edu.course.Course;
 import io.satori.edu.course.CourseRepository;
 import io.satori.edu.exception.APIEntityNotFoundException;
 import io.satori.edu.exception.BadRequestException;
+import io.satori.edu.export.NdjsonExporter;
+import io.satori.edu.pagination.CursorPage;
+import io.satori.edu.referencedata.ReferenceDataCache;
 import io.satori.edu.student.StudentRepository;
+import io.satori.edu.student.TranscriptCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class ResultService {
@@ -17,85 +34,258 @@ public class ResultService {
     private final ResultRepository resultRepository;
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
+    private final NdjsonExporter ndjsonExporter;
+    private final GradeDistribution gradeDistribution;
+    private final TranscriptCache transcriptCache;
+    private final ReferenceDataCache referenceDataCache;
+    private final AuditLog auditLog;
 
     @Autowired //dependency injection
-    public ResultService(ResultRepository resultRepository, StudentRepository studentRepository, CourseRepository courseRepository)
+    public ResultService(ResultRepository resultRepository, StudentRepository studentRepository, CourseRepository courseRepository,
+                         NdjsonExporter ndjsonExporter, GradeDistribution gradeDistribution, TranscriptCache transcriptCache,
+                         ReferenceDataCache referenceDataCache, AuditLog auditLog)
     {
         this.resultRepository = resultRepository;
         this.studentRepository = studentRepository;
         this.courseRepository = courseRepository;
+        this.ndjsonExporter = ndjsonExporter;
+        this.gradeDistribution = gradeDistribution;
+        this.transcriptCache = transcriptCache;
+        this.referenceDataCache = referenceDataCache;
+        this.auditLog = auditLog;
     }
 
-    public List<Result> getAllResult()
+    @Transactional(readOnly = true)
+    public CursorPage<ResultSummary> getAllResult(String after, Integer limit)
     {
-        return resultRepository.findAll();
+        ResultId from = after == null ? new ResultId(0, 0) : ResultId.fromCursor(after);
+        List<ResultSummary> rows = resultRepository.findResultPageAfter(from.getStudentId(), from.getCourseId(), CursorPage.limitPlusOne(limit));
+        return CursorPage.of(rows, limit, ResultSummary::toCursor);
     }
 
-    public List<Result> getResultByGradeGreaterThanEqual(Integer grade)
+    @Transactional(readOnly = true) //the stream holds an open cursor until the export is written
+    public long exportResults(OutputStream out) throws IOException
     {
-        return resultRepository.findResultByGradeGreaterThanEqual(grade);
+        try (Stream<Result> results = resultRepository.streamAllResults()) {
+            return ndjsonExporter.write(results, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ResultSummary> getResultByGradeGreaterThanEqual(Integer grade, String after, Integer limit,
+                                                                      Integer courseId, Integer facultyId)
+    {
+        int afterGrade = Integer.MAX_VALUE; //first page: every grade is below it
+        ResultId afterId = new ResultId(0, 0);
+        if(after != null)
+        {
+            int separator = after.indexOf(':');
+            try
+            {
+                afterGrade = Integer.parseInt(after.substring(0, Math.max(separator, 0)));
+            }
+            catch (NumberFormatException e)
+            {
+                throw new BadRequestException("Cursor must have the form grade:studentId:courseId");
+            }
+            afterId = ResultId.fromCursor(after.substring(separator + 1));
+        }
+        List<ResultSummary> rows = resultRepository.findTopResultsAfter(grade, afterGrade, afterId.getStudentId(), afterId.getCourseId(),
+                courseId, facultyId, CursorPage.limitPlusOne(limit));
+        return CursorPage.of(rows, limit, ResultSummary::toGradeCursor);
     }
 
+    @Transactional(readOnly = true)
     public Result getOneResult(Integer resultId) {
         return resultRepository.findById(resultId).orElseThrow(()-> new APIEntityNotFoundException("Enrolment with id "+resultId+" was not found"));
     }
 
+    @Transactional
     public void addResult(Result result, Integer studentId, Integer courseId)
     {
-        Optional<Result> findResult = resultRepository.findResultByStudentIdAndCourseId(studentId,courseId);
-        if(findResult.isPresent()) //if result is already present in database
+        validateGrade(result.getGrade());
+        EnrollmentCheck check = resultRepository.checkEnrollment(studentId, courseId); //one round trip for every rule below
+        if(check.isEnrolled()) //if result is already present in database
         {
             throw new BadRequestException("Result "+" already exist in database");
         }
-        boolean existsStudent = studentRepository.existsById(studentId);
-        if(!existsStudent)
+        if(check.getStudentId() == null)
         {
             throw new APIEntityNotFoundException("Student with id "+studentId+" was not found");
         }
-        boolean existsCourse = courseRepository.existsById(courseId);
-        if(!existsCourse)
+        if(check.getCourseId() == null)
         {
             throw new APIEntityNotFoundException("Course with id "+courseId+" was not found");
         }
-        int student_facultyId = studentRepository.getById(studentId).getCohort().getFaculty().getId(); //find this student belongs to which faculty
-        String student_facultyName = studentRepository.getById(studentId).getCohort().getFaculty().getName();
-        int course_facultyId = courseRepository.getById(courseId).getFaculty().getId(); //find this course belongs to which faculty
-        String course_facultyName = courseRepository.getById(courseId).getFaculty().getName();
-        if(student_facultyId != course_facultyId) // if the student and course different in the faculty
+        if(!Objects.equals(check.getStudentFacultyId(), check.getCourseFacultyId())) // if the student and course different in the faculty
         {
-            throw new BadRequestException("Student with "+studentId+" is faculty of "+student_facultyName+" can't enroll. Because this courseId "+courseId+" belong to faculty of "+course_facultyName);
+            throw new BadRequestException("Student with "+studentId+" is faculty of "+check.getStudentFacultyName()+" can't enroll. Because this courseId "+courseId+" belong to faculty of "+check.getCourseFacultyName());
         }
-        result.setId(new ResultId(studentId,courseId));
-        result.setStudent(studentRepository.getById(studentId));
-        result.setCourse(courseRepository.getById(courseId));
-        resultRepository.save(result);
+        resultRepository.insertResult(studentId, courseId, result.getGrade());
+        gradeDistribution.recordAdded(courseId, result.getGrade());
+        transcriptCache.evictAfterCommit(studentId);
+        auditLog.record(AuditAction.CREATE, "Result", new ResultId(studentId, courseId).toCursor());
     }
 
+    /**
+     * Enrol every student of a cohort in a course with one INSERT ... SELECT, skipping students already enrolled.
+     * The faculty rule is checked once for the pair: a cohort's students all belong to the cohort's faculty.
+     */
     @Transactional
-    public void deleteResult(Integer studentId, Integer courseId)
+    public EnrollmentReport enrollCohort(Integer courseId, Integer cohortId, Integer grade)
     {
-        boolean existsStudentById = studentRepository.existsById(studentId);
-        if(!existsStudentById)
+        int initialGrade = grade == null ? Result.MIN_GRADE : grade;
+        validateGrade(initialGrade);
+        Course course = referenceDataCache.findCourse(courseId).orElseThrow(()
+                -> new APIEntityNotFoundException("Course with id "+courseId+" was not found"));
+        Cohort cohort = referenceDataCache.findCohort(cohortId).orElseThrow(()
+                -> new APIEntityNotFoundException("Cohort with id "+cohortId+" was not found"));
+        if(!Objects.equals(cohort.getFaculty().getId(), course.getFaculty().getId()))
         {
-            throw new APIEntityNotFoundException("Student with id "+studentId+" was not found");
+            throw new BadRequestException("Cohort "+cohortId+" is faculty of "+cohort.getFaculty().getName()+" can't enroll. Because this courseId "+courseId+" belong to faculty of "+course.getFaculty().getName());
         }
-        boolean existCourseById = courseRepository.existsById(courseId);
-        if(!existCourseById)
+        List<Integer> newStudents = new ArrayList<>();
+        int skipped = 0;
+        for (Object[] row : resultRepository.findCohortEnrollment(cohortId, courseId))
         {
-            throw new APIEntityNotFoundException("Course with id "+courseId+" was not found");
+            if(((Number) row[1]).intValue() == 0)
+            {
+                newStudents.add(((Number) row[0]).intValue());
+            }
+            else
+            {
+                skipped++;
+            }
+        }
+        if(newStudents.isEmpty())
+        {
+            return new EnrollmentReport(courseId, cohortId, 0, skipped);
         }
-        resultRepository.deleteResultByStudentIdAndCourseId(studentId,courseId);
+        //The statement re-checks every student, so an enrolment that slipped in meanwhile is skipped, not duplicated
+        int inserted = resultRepository.insertCohortResults(cohortId, courseId, initialGrade);
+        gradeDistribution.recordAdded(courseId, initialGrade, inserted);
+        for (Integer studentId : newStudents)
+        {
+            transcriptCache.evictAfterCommit(studentId);
+            auditLog.record(AuditAction.CREATE, "Result", new ResultId(studentId, courseId).toCursor());
+        }
+        return new EnrollmentReport(courseId, cohortId, inserted, skipped + newStudents.size() - inserted);
+    }
+
+    @Transactional
+    public void deleteResult(Integer studentId, Integer courseId)
+    {
+        Optional<Integer> grade = resultRepository.findGrade(studentId,courseId); //it leaves the grade statistics
+        int deleted = grade.isEmpty() ? 0 : resultRepository.deleteResultByStudentIdAndCourseId(studentId,courseId);
+        if(deleted == 0)
+        {
+            //Only a miss pays for telling an unknown student or course (404) from a missing enrolment (nothing to delete)
+            boolean existsStudentById = studentRepository.existsById(studentId);
+            if(!existsStudentById)
+            {
+                throw new APIEntityNotFoundException("Student with id "+studentId+" was not found");
+            }
+            boolean existCourseById = courseRepository.existsById(courseId);
+            if(!existCourseById)
+            {
+                throw new APIEntityNotFoundException("Course with id "+courseId+" was not found");
+            }
+            return; //nothing to delete
+        }
+        gradeDistribution.recordRemoved(courseId, grade.get());
+        transcriptCache.evictAfterCommit(studentId);
+        auditLog.record(AuditAction.DELETE, "Result", new ResultId(studentId, courseId).toCursor());
     }
 
+    @Transactional
     public void updateResult(Integer studentId, Integer courseId, Integer grade)
     {
         Result findResult = resultRepository.findResult(studentId,courseId);
+        if(findResult == null)
+        {
+            throw new APIEntityNotFoundException("Result of student "+studentId+" in course "+courseId+" was not found");
+        }
         //update grade
-        if(findResult.getGrade() != grade)
+        if(grade != null && findResult.getGrade() != grade)
         {
-              findResult.setGrade(grade);
-         }
-        resultRepository.save(findResult);
+            validateGrade(grade);
+            int oldGrade = findResult.getGrade();
+            findResult.setGrade(grade);
+            resultRepository.save(findResult);
+            gradeDistribution.recordChanged(courseId, oldGrade, grade);
+            transcriptCache.evictAfterCommit(studentId);
+            auditLog.record(AuditAction.UPDATE, "Result", new ResultId(studentId, courseId).toCursor());
+        }
+    }
+
+    /**
+     * Apply a whole course's grades in one transaction: one select for the current grades, one JDBC batch of UPDATEs.
+     * Students without a result in the course are reported, not enrolled; any invalid element rejects the whole request.
+     */
+    @Transactional
+    public GradeBatchReport updateCourseGrades(Integer courseId, List<GradeUpdate> updates)
+    {
+        if(!courseRepository.existsById(courseId))
+        {
+            throw new APIEntityNotFoundException("Course with id "+courseId+" was not found");
+        }
+        Set<Integer> studentIds = new HashSet<>();
+        for (GradeUpdate update : updates)
+        {
+            if(update == null || update.getStudentId() == null || update.getGrade() == null)
+            {
+                throw new BadRequestException("Every grade needs a studentId and a grade");
+            }
+            validateGrade(update.getGrade());
+            if(!studentIds.add(update.getStudentId()))
+            {
+                throw new BadRequestException("Student "+update.getStudentId()+" is graded more than once");
+            }
+        }
+        GradeBatchReport report = new GradeBatchReport(courseId);
+        if(updates.isEmpty())
+        {
+            return report;
+        }
+        Map<Integer, Integer> currentGrades = new HashMap<>();
+        for (Object[] row : resultRepository.findGradesInCourse(courseId, studentIds))
+        {
+            currentGrades.put((Integer) row[0], (Integer) row[1]);
+        }
+        List<GradeUpdate> changed = new ArrayList<>();
+        for (GradeUpdate update : updates)
+        {
+            Integer oldGrade = currentGrades.get(update.getStudentId());
+            if(oldGrade == null)
+            {
+                report.notEnrolled(update.getStudentId());
+            }
+            else if(oldGrade.equals(update.getGrade()))
+            {
+                report.unchanged();
+            }
+            else
+            {
+                changed.add(update);
+                report.updated();
+            }
+        }
+        resultRepository.updateGrades(courseId, changed);
+        for (GradeUpdate update : changed)
+        {
+            gradeDistribution.recordChanged(courseId, currentGrades.get(update.getStudentId()), update.getGrade());
+            transcriptCache.evictAfterCommit(update.getStudentId());
+            auditLog.record(AuditAction.UPDATE, "Result", new ResultId(update.getStudentId(), courseId).toCursor());
+        }
+        return report;
+    }
+
+    private void validateGrade(int grade)
+    {
+        if(grade < Result.MIN_GRADE || grade > Result.MAX_GRADE)
+        {
+            throw new BadRequestException("Grade must be between "+Result.MIN_GRADE+" and "+Result.MAX_GRADE);
+        }
     }
 
 
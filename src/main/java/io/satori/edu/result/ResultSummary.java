@@ -0,0 +1,41 @@
+package io.satori.edu.result;
+
+import io.satori.edu.projection.NamedRef;
+
+/**
+ * Result row for list endpoints, built by a JPQL constructor query.
+ * Student and course are reduced to their id and name instead of the full Student, Cohort, Course and Faculty graph.
+ */
+public class ResultSummary {
+
+    private final NamedRef student;
+    private final NamedRef course;
+    private final int grade;
+
+    public ResultSummary(int studentId, String studentName, int courseId, String courseName, int grade) {
+        this.student = new NamedRef(studentId, studentName);
+        this.course = new NamedRef(courseId, courseName);
+        this.grade = grade;
+    }
+
+    public NamedRef getStudent() {
+        return student;
+    }
+
+    public NamedRef getCourse() {
+        return course;
+    }
+
+    public int getGrade() {
+        return grade;
+    }
+
+    public String toCursor() {
+        return new ResultId(student.getId(), course.getId()).toCursor();
+    }
+
+    //Cursor of the grade ordered list: grade:studentId:courseId
+    public String toGradeCursor() {
+        return grade + ":" + toCursor();
+    }
+}
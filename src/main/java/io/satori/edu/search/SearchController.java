@@ -0,0 +1,31 @@
+package io.satori.edu.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(path = "api/v1/search")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @Autowired
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @GetMapping //?q=&type=student|course|cohort|faculty&limit=, best matches first, no database round trip
+    public ResponseEntity<List<SearchHit>> search(
+        @RequestParam String q,
+        @RequestParam(required = false) String type,
+        @RequestParam(required = false) Integer limit)
+    {
+        return ResponseEntity.ok(searchService.search(q, type, limit));
+    }
+}
@@ -0,0 +1,38 @@
+package io.satori.edu.search;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One typeahead suggestion of GET /api/v1/search. email is only set for students.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchHit {
+
+    private final SearchType type;
+    private final int id;
+    private final String name;
+    private final String email;
+
+    public SearchHit(SearchType type, int id, String name, String email) {
+        this.type = type;
+        this.id = id;
+        this.name = name;
+        this.email = email;
+    }
+
+    public SearchType getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+}
@@ -0,0 +1,254 @@
+package io.satori.edu.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Trigram and word prefix index over student names and emails and course, cohort and faculty names.
+ * <ul>
+ *     <li>Matching ignores case and accents. A query of three characters or more matches anywhere in the text,
+ *     like the old client-side filter; it is looked up by its rarest trigram and every candidate is then checked
+ *     against the text itself. Shorter queries only match the start of a word.</li>
+ *     <li>Ranked: whole text, then start of the text, then start of a word, then anywhere; a name before an email;
+ *     then shorter names first. Only the best {@code limit} are kept while scanning.</li>
+ *     <li>Not thread safe, {@link SearchService} guards it.</li>
+ * </ul>
+ */
+class SearchIndex {
+
+    static final int GRAM = 3;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Document>> grams = new HashMap<>();
+    private final TreeMap<String, Set<Document>> words = new TreeMap<>();
+
+    /**
+     * Add or replace one entry.
+     */
+    void put(SearchType type, int id, String name, String email) {
+        remove(type, id);
+        Document document = new Document(type, id, name, email);
+        documents.put(key(type, id), document);
+        for (String field : document.fields) {
+            for (String gram : grams(field)) {
+                grams.computeIfAbsent(gram, g -> new HashSet<>()).add(document);
+            }
+            for (String word : words(field)) {
+                words.computeIfAbsent(word, w -> new HashSet<>()).add(document);
+            }
+        }
+    }
+
+    void remove(SearchType type, int id) {
+        Document document = documents.remove(key(type, id));
+        if (document == null) {
+            return;
+        }
+        for (String field : document.fields) {
+            for (String gram : grams(field)) {
+                unlink(grams, gram, document);
+            }
+            for (String word : words(field)) {
+                unlink(words, word, document);
+            }
+        }
+    }
+
+    /**
+     * @param type null searches every type
+     */
+    List<SearchHit> search(String query, SearchType type, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, Comparator.reverseOrder()); //worst kept match on top
+        for (Document document : candidates(normalized)) {
+            if (type != null && document.type != type) {
+                continue;
+            }
+            int score = document.score(normalized);
+            if (score == 0 || best.size() == limit && best.peek().compareTo(score, document) <= 0) {
+                continue; //most candidates of a common query stop here, without touching the queue
+            }
+            best.add(new Match(document, score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Match> matches = new ArrayList<>(best);
+        Collections.sort(matches);
+        return matches.stream().map(match -> match.document.toHit()).collect(Collectors.toList());
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    private Collection<Document> candidates(String query) {
+        if (query.length() < GRAM) {
+            Set<Document> candidates = new HashSet<>();
+            for (Set<Document> postings : words.subMap(query, query + Character.MAX_VALUE).values()) {
+                candidates.addAll(postings);
+            }
+            return candidates;
+        }
+        Set<Document> rarest = null;
+        for (String gram : grams(query)) {
+            Set<Document> postings = grams.get(gram);
+            if (postings == null) {
+                return List.of(); //no text contains this trigram, so none contains the query
+            }
+            if (rarest == null || postings.size() < rarest.size()) {
+                rarest = postings;
+            }
+        }
+        return rarest;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String unaccented = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(unaccented.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+
+    private static Set<String> grams(String field) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= field.length(); i++) {
+            grams.add(field.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static Set<String> words(String field) {
+        Set<String> words = new HashSet<>();
+        for (String word : WORD_SEPARATORS.split(field)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static void unlink(Map<String, Set<Document>> postings, String term, Document document) {
+        Set<Document> documents = postings.get(term);
+        if (documents != null && documents.remove(document) && documents.isEmpty()) {
+            postings.remove(term);
+        }
+    }
+
+    private static long key(SearchType type, int id) {
+        return ((long) type.ordinal() << 32) | (id & 0xffffffffL);
+    }
+
+    //4 whole text, 3 start of the text, 2 start of a word, 1 anywhere, 0 no match
+    private static int rank(String field, String query) {
+        if (field.equals(query)) {
+            return 4;
+        }
+        if (field.startsWith(query)) {
+            return 3;
+        }
+        int at = field.indexOf(query);
+        if (at < 0) {
+            return 0;
+        }
+        for (; at >= 0; at = field.indexOf(query, at + 1)) {
+            if (!Character.isLetterOrDigit(field.charAt(at - 1))) {
+                return 2;
+            }
+        }
+        return 1;
+    }
+
+    private static final class Document {
+
+        private final SearchType type;
+        private final int id;
+        private final String name;
+        private final String email;
+        private final String[] fields; //normalized name, then email
+
+        private Document(SearchType type, int id, String name, String email) {
+            this.type = type;
+            this.id = id;
+            this.name = name;
+            this.email = email;
+            this.fields = email == null
+                    ? new String[] {normalize(name)}
+                    : new String[] {normalize(name), normalize(email)};
+        }
+
+        //The same rank scores higher on the name than on the email
+        private int score(String query) {
+            int best = 0;
+            for (int i = 0; i < fields.length; i++) {
+                int rank = rank(fields[i], query);
+                if (rank > 0) {
+                    best = Math.max(best, rank * 2 - i);
+                }
+            }
+            return best;
+        }
+
+        private SearchHit toHit() {
+            return new SearchHit(type, id, name, email);
+        }
+    }
+
+    //Best first: higher score, then shorter name, then by name, type and id
+    private static final class Match implements Comparable<Match> {
+
+        private final Document document;
+        private final int score;
+
+        private Match(Document document, int score) {
+            this.document = document;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Match other) {
+            return -other.compareTo(score, document);
+        }
+
+        //Negative when this match ranks before a candidate with the given score and document
+        private int compareTo(int otherScore, Document other) {
+            if (score != otherScore) {
+                return otherScore - score;
+            }
+            String name = document.fields[0];
+            String otherName = other.fields[0];
+            if (name.length() != otherName.length()) {
+                return name.length() - otherName.length();
+            }
+            int byName = name.compareTo(otherName);
+            if (byName != 0) {
+                return byName;
+            }
+            if (document.type != other.type) {
+                return document.type.compareTo(other.type);
+            }
+            return Integer.compare(document.id, other.id);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package io.satori.edu.search;
+
+import io.satori.edu.cohort.CohortRepository;
+import io.satori.edu.course.CourseRepository;
+import io.satori.edu.datasource.ReadWriteRoutingDataSource;
+import io.satori.edu.exception.BadRequestException;
+import io.satori.edu.faculty.FacultyRepository;
+import io.satori.edu.student.StudentRepository;
+import io.satori.edu.transaction.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Typeahead over students, courses, cohorts and faculties, answered from a {@link SearchIndex} in memory.
+ * The services keep it current after each commit: single rows are put or removed, and deletes that cascade
+ * (cohort, faculty) remove the ids they read before deleting. A periodic rebuild picks up rows written by other nodes.
+ */
+@Service
+public class SearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final CohortRepository cohortRepository;
+    private final FacultyRepository facultyRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private SearchIndex index = new SearchIndex(); //guarded by lock
+    //Changes committed while a rebuild is loading, replayed on the rebuilt index; null when no rebuild runs
+    private List<Consumer<SearchIndex>> pending; //guarded by lock
+
+    @Autowired
+    public SearchService(StudentRepository studentRepository, CourseRepository courseRepository,
+                         CohortRepository cohortRepository, FacultyRepository facultyRepository) {
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.cohortRepository = cohortRepository;
+        this.facultyRepository = facultyRepository;
+    }
+
+    public List<SearchHit> search(String query, String type, Integer limit)
+    {
+        SearchType searchType = SearchType.parse(type);
+        int resolvedLimit = resolveLimit(limit);
+        lock.readLock().lock();
+        try {
+            return index.search(query, searchType, resolvedLimit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add or replace an entry once the current transaction commits. email is only indexed for students.
+     */
+    public void putAfterCommit(SearchType type, int id, String name, String email) {
+        AfterCommit.run(() -> apply(index -> index.put(type, id, name, email)));
+    }
+
+    public void removeAfterCommit(SearchType type, int id) {
+        AfterCommit.run(() -> apply(index -> index.remove(type, id)));
+    }
+
+    //Every row of a cascading delete under one write lock
+    public void removeAllAfterCommit(SearchType type, Collection<Integer> ids) {
+        AfterCommit.run(() -> apply(index -> ids.forEach(id -> index.remove(type, id))));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${search-index.rebuild-interval-ms:600000}",
+               fixedDelayString = "${search-index.rebuild-interval-ms:600000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    /**
+     * Loads outside the lock, so searches keep being answered from the old index meanwhile.
+     * Synchronized so two rebuilds never share the pending list.
+     */
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        SearchIndex rebuilt = null;
+        try {
+            rebuilt = ReadWriteRoutingDataSource.onPrimary(this::load);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (rebuilt != null) { //a failed load keeps the old index, which already has every change
+                    for (Consumer<SearchIndex> change : pending) {
+                        change.accept(rebuilt);
+                    }
+                    index = rebuilt;
+                }
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.debug("Search index rebuilt with {} entries", rebuilt.size());
+    }
+
+    private SearchIndex load() {
+        SearchIndex loaded = new SearchIndex();
+        for (Object[] row : studentRepository.findAllSearchRows()) {
+            loaded.put(SearchType.STUDENT, (Integer) row[0], (String) row[1], (String) row[2]);
+        }
+        for (Object[] row : courseRepository.findAllCourseRows()) {
+            loaded.put(SearchType.COURSE, (Integer) row[0], (String) row[1], null);
+        }
+        for (Object[] row : cohortRepository.findAllCohortRows()) {
+            loaded.put(SearchType.COHORT, (Integer) row[0], (String) row[1], null);
+        }
+        for (Object[] row : facultyRepository.findAllFacultyRows()) {
+            loaded.put(SearchType.FACULTY, (Integer) row[0], (String) row[1], null);
+        }
+        return loaded;
+    }
+
+    private void apply(Consumer<SearchIndex> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+}
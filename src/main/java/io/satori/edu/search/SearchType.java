@@ -0,0 +1,34 @@
+package io.satori.edu.search;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import io.satori.edu.exception.BadRequestException;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+public enum SearchType {
+    STUDENT,
+    COURSE,
+    COHORT,
+    FACULTY;
+
+    @JsonValue
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    //?type= of GET /api/v1/search, null searches every type
+    public static SearchType parse(String type) {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        for (SearchType value : values()) {
+            if (value.getName().equalsIgnoreCase(type.trim())) {
+                return value;
+            }
+        }
+        throw new BadRequestException("type must be one of " +
+                Arrays.stream(values()).map(SearchType::getName).collect(Collectors.joining(", ")));
+    }
+}
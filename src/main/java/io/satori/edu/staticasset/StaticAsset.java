@@ -0,0 +1,176 @@
+package io.satori.edu.staticasset;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * One file of the bundled frontend, with its precompressed copies (.br, .gz) when the build wrote them.
+ * Immutable; built once by {@link StaticAssetCatalog}.
+ */
+public final class StaticAsset {
+
+    //Angular puts a content hash in every bundle name (outputHashing=all), e.g. main.1f3c0a9b2d4e6f70.js
+    private static final Pattern HASHED_NAME = Pattern.compile(".*\\.[0-9a-f]{16,}\\.[A-Za-z0-9]+$");
+
+    //Preferred first: brotli is the smaller of the two
+    private static final String[] ENCODINGS = {"br", "gzip"};
+    private static final String[] SUFFIXES = {".br", ".gz"};
+
+    private final String path;
+    private final String contentType;
+    private final boolean immutable;
+    private final long lastModified;
+    private final Variant identity;
+    private final List<Variant> encoded;
+
+    private StaticAsset(String path, String contentType, boolean immutable, long lastModified, Variant identity, List<Variant> encoded) {
+        this.path = path;
+        this.contentType = contentType;
+        this.immutable = immutable;
+        this.lastModified = lastModified;
+        this.identity = identity;
+        this.encoded = encoded;
+    }
+
+    static StaticAsset of(String path, Path file) throws IOException {
+        String name = file.getFileName().toString();
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String tag = Long.toHexString(lastModified) + "-" + Long.toHexString(length);
+        List<Variant> encoded = new ArrayList<>();
+        for (int i = 0; i < ENCODINGS.length; i++) {
+            Path copy = file.resolveSibling(name + SUFFIXES[i]);
+            if (Files.isRegularFile(copy) && Files.size(copy) < length) {
+                encoded.add(new Variant(ENCODINGS[i], copy, Files.size(copy), "\"" + tag + "-" + ENCODINGS[i] + "\""));
+            }
+        }
+        return new StaticAsset(path, contentType(name), HASHED_NAME.matcher(name).matches(), lastModified,
+                new Variant(null, file, length, "\"" + tag + "\""), Collections.unmodifiableList(encoded));
+    }
+
+    private static String contentType(String name) {
+        if (name.endsWith(".md")) {
+            return "text/markdown"; //missing from Spring's mime.types, same mapping as StaticResourceConfig
+        }
+        return MediaTypeFactory.getMediaType(name).map(MediaType::toString).orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+    }
+
+    /**
+     * True for the precompressed copies themselves, which are served through their original, never on their own.
+     */
+    static boolean isEncodedCopy(Path file) {
+        String name = file.getFileName().toString();
+        for (String suffix : SUFFIXES) {
+            if (name.endsWith(suffix)
+                    && Files.isRegularFile(file.resolveSibling(name.substring(0, name.length() - suffix.length())))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The smallest copy the client accepts, per its Accept-Encoding header; the original file otherwise.
+     */
+    public Variant select(String acceptEncoding) {
+        if (acceptEncoding == null || encoded.isEmpty()) {
+            return identity;
+        }
+        for (Variant variant : encoded) {
+            if (accepts(acceptEncoding, variant.getEncoding())) {
+                return variant;
+            }
+        }
+        return identity;
+    }
+
+    //Only explicitly listed codings count, and "q=0" means "not acceptable"
+    private static boolean accepts(String acceptEncoding, String encoding) {
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            if (!parts[0].trim().toLowerCase(Locale.ROOT).equals(encoding)) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") && isZero(param.substring(2))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isZero(String quality) {
+        try {
+            return Double.parseDouble(quality) == 0;
+        } catch (NumberFormatException e) {
+            return false; //a malformed weight does not rule the coding out
+        }
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public boolean isImmutable() {
+        return immutable;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public boolean hasEncodedCopies() {
+        return !encoded.isEmpty();
+    }
+
+    /**
+     * One representation on disk: the original file (no encoding) or one of its compressed copies.
+     * Each has its own strong ETag, as the bytes differ.
+     */
+    public static final class Variant {
+
+        private final String encoding;
+        private final Path file;
+        private final long length;
+        private final String eTag;
+
+        private Variant(String encoding, Path file, long length, String eTag) {
+            this.encoding = encoding;
+            this.file = file;
+            this.length = length;
+            this.eTag = eTag;
+        }
+
+        public String getEncoding() {
+            return encoding;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+    }
+}
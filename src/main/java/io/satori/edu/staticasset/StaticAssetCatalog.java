@@ -0,0 +1,117 @@
+package io.satori.edu.staticasset;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Index of the bundled frontend files, by request path.
+ * Files are served straight from disk so the container can send them with sendfile: an exploded
+ * classpath (IDE, {@code mvn spring-boot:run}) is used in place, while the packaged jar is extracted
+ * once to a temporary directory at startup.
+ */
+@Component
+public class StaticAssetCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(StaticAssetCatalog.class);
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+
+    private Path extracted;
+    private Map<String, StaticAsset> assets = Collections.emptyMap();
+
+    @Autowired
+    public StaticAssetCatalog(ResourceLoader resourceLoader,
+                              @Value("${static-assets.location:classpath:static/}") String location) {
+        this.resourceLoader = resourceLoader;
+        this.location = location.endsWith("/") ? location : location + "/";
+    }
+
+    /**
+     * The asset served for a request path; "/" is the index page.
+     */
+    public StaticAsset find(String path) {
+        return assets.get("/".equals(path) ? "/index.html" : path);
+    }
+
+    public int size() {
+        return assets.size();
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        Resource root = resourceLoader.getResource(location);
+        if (!root.exists()) {
+            log.info("No static assets at {}", location);
+            return;
+        }
+        Path directory = root.isFile() ? root.getFile().toPath() : extract(root);
+        Map<String, StaticAsset> index = new HashMap<>();
+        try (Stream<Path> files = Files.walk(directory)) {
+            Iterator<Path> iterator = files.filter(Files::isRegularFile).iterator();
+            while (iterator.hasNext()) {
+                Path file = iterator.next();
+                if (StaticAsset.isEncodedCopy(file)) {
+                    continue;
+                }
+                String path = "/" + directory.relativize(file).toString().replace(File.separatorChar, '/');
+                index.put(path, StaticAsset.of(path, file));
+            }
+        }
+        assets = Collections.unmodifiableMap(index);
+        log.info("Serving {} static assets from {}", index.size(), directory);
+    }
+
+    /**
+     * Copy the assets out of the jar, keeping the entry timestamps so ETags stay the same across restarts.
+     */
+    private Path extract(Resource root) throws IOException {
+        extracted = Files.createTempDirectory("static-assets");
+        String base = root.getURL().toString();
+        for (Resource resource : ResourcePatternUtils.getResourcePatternResolver(resourceLoader).getResources(location + "**")) {
+            String url = resource.getURL().toString();
+            if (url.endsWith("/") || !url.startsWith(base)) {
+                continue; //directory entry
+            }
+            Path target = extracted.resolve(url.substring(base.length())).normalize();
+            if (!target.startsWith(extracted)) {
+                continue;
+            }
+            Files.createDirectories(target.getParent());
+            try (InputStream in = resource.getInputStream()) {
+                Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.setLastModifiedTime(target, FileTime.fromMillis(resource.lastModified()));
+        }
+        return extracted;
+    }
+
+    @PreDestroy
+    public void deleteExtracted() throws IOException {
+        if (extracted != null) {
+            FileSystemUtils.deleteRecursively(extracted);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.satori.edu.staticasset;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Writes one {@link StaticAsset}: picks the precompressed copy from Accept-Encoding, answers conditional
+ * requests with 304, and hands the file to the container's sendfile support instead of copying it
+ * through the JVM when the connector offers it (Tomcat NIO does by default).
+ */
+@Component
+public class StaticAssetHandler {
+
+    //Hashed bundle names change with their content, so the browser never has to ask again
+    static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    //Everything else (index.html first) is revalidated with its ETag on every use
+    static final String REVALIDATE = "no-cache";
+
+    //Servlet request attributes of Tomcat's sendfile support (org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final long sendfileMinBytes;
+
+    public StaticAssetHandler(@Value("${static-assets.sendfile-min-bytes:49152}") long sendfileMinBytes) {
+        this.sendfileMinBytes = sendfileMinBytes;
+    }
+
+    public void serve(StaticAsset asset, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        StaticAsset.Variant variant = asset.select(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (asset.hasEncodedCopies()) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, asset.isImmutable() ? IMMUTABLE : REVALIDATE);
+        if (new ServletWebRequest(request, response).checkNotModified(variant.getETag(), asset.getLastModified())) {
+            return; //304, ETag and Last-Modified are already set
+        }
+        response.setContentType(asset.getContentType());
+        if (variant.getEncoding() != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, variant.getEncoding());
+        }
+        response.setContentLengthLong(variant.getLength());
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+        if (variant.getLength() >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            //The container writes the file once the request returns, straight from the page cache to the socket
+            request.setAttribute(SENDFILE_FILENAME, variant.getFile().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, variant.getLength());
+            return;
+        }
+        Files.copy(variant.getFile(), response.getOutputStream()); //small files: a syscall round trip costs more than the copy
+    }
+}
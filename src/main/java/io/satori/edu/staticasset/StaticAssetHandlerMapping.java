@@ -0,0 +1,42 @@
+package io.satori.edu.staticasset;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.HttpRequestHandler;
+import org.springframework.web.servlet.handler.AbstractHandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Maps GET and HEAD requests for bundled frontend files to {@link StaticAssetHandler}.
+ * It runs after the controllers and only claims paths that exist in the {@link StaticAssetCatalog},
+ * so unknown URLs still end in the usual JSON 404 (spring.web.resources.add-mappings=false keeps
+ * Spring's default resource handler, which copies every byte through the JVM, out of the way).
+ */
+@Component
+public class StaticAssetHandlerMapping extends AbstractHandlerMapping {
+
+    private final StaticAssetCatalog catalog;
+    private final StaticAssetHandler handler;
+
+    @Autowired
+    public StaticAssetHandlerMapping(StaticAssetCatalog catalog, StaticAssetHandler handler) {
+        this.catalog = catalog;
+        this.handler = handler;
+        setOrder(Ordered.LOWEST_PRECEDENCE - 1); //same slot as Spring's own resource handler mapping
+    }
+
+    @Override
+    protected Object getHandlerInternal(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return null;
+        }
+        StaticAsset asset = catalog.find(initLookupPath(request));
+        if (asset == null) {
+            return null;
+        }
+        return (HttpRequestHandler) (req, resp) -> handler.serve(asset, req, resp);
+    }
+}
@@ -3,7 +3,6 @@ package io.satori.edu.student;
 
 import io.satori.edu.cohort.Cohort;
 import io.satori.edu.result.Result;
-import io.satori.edu.librarycard.LibraryCard;
 
 import javax.persistence.*;
 import java.time.LocalDate;
@@ -15,6 +14,11 @@ import java.util.List;
                                             @UniqueConstraint(
                                                 name = "student_email_unique",
                                                 columnNames = "email")
+                                            },
+                        indexes = {
+                                            @Index(
+                                                name = "student_faculty_roster_idx", //covers the faculty roster query
+                                                columnList = "faculty_id, id, name, email, Cohort_id")
                                             }
 )
 public class Student {
@@ -22,7 +26,7 @@ public class Student {
     @Id //id will be primary key of table student
     @SequenceGenerator(name = "student_sequence",
                         sequenceName = "student_sequence",
-                        allocationSize = 1) //generate sequence with id auto increment begin 1
+                        allocationSize = 50) //reserve a block of 50 ids per sequence call (pooled-lo optimizer)
     @GeneratedValue(strategy = GenerationType.SEQUENCE,
                     generator = "student_sequence") //use sequence is just defined above
     @Column(name = "id",
@@ -46,8 +50,8 @@ public class Student {
 //    @Transient //This annotation mean is no need column age in database because age will calculate by dob
 //    private int age;
 
-    @OneToOne(mappedBy = "student",cascade = CascadeType.ALL,orphanRemoval = true)
-    private LibraryCard libraryCard;
+    //No inverse side for LibraryCard: Hibernate can't proxy a mappedBy one-to-one, so it cost one library_card
+    //select per loaded student. The card still goes with its student, library_card.student_id is ON DELETE CASCADE
 
     @ManyToOne
     @JoinColumn(name = "Cohort_id", //Cohort_id  column
@@ -58,6 +62,11 @@ public class Student {
     @OneToMany(mappedBy = "student",cascade = CascadeType.ALL)
     private List<Result> result;
 
+    //Denormalized copy of cohort.faculty.id so faculty rosters don't join cohort and faculty.
+    //Kept in sync by syncFacultyId() and by CohortService.updateCohort when a cohort changes faculty
+    @Column(name = "faculty_id")
+    private Integer facultyId;
+
 
 
     public Student() {}
@@ -128,6 +137,16 @@ public class Student {
         this.cohort = cohort;
     }
 
+    public Integer getFacultyId() {
+        return facultyId;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void syncFacultyId() {
+        this.facultyId = cohort == null || cohort.getFaculty() == null ? null : cohort.getFaculty().getId();
+    }
+
 
     @Override
     public String toString() {
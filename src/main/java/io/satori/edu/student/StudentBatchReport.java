@@ -0,0 +1,82 @@
+package io.satori.edu.student;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-row outcome of a bulk student import, rows are reported in request order.
+ */
+public class StudentBatchReport {
+
+    private int created;
+    private int rejected;
+    private final List<Row> rows = new ArrayList<>();
+
+    // Inner class for the outcome of one array element
+    public static class Row {
+        private final int index;
+        private final String email;
+        private Integer id;
+        private String error;
+
+        public Row(int index, String email) {
+            this.index = index;
+            this.email = email;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public Integer getId() {
+            return id;
+        }
+
+        public void setId(Integer id) {
+            this.id = id;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+
+        public String getStatus() {
+            return error == null ? "CREATED" : "REJECTED";
+        }
+    }
+
+    Row accept(int index, String email) {
+        Row row = new Row(index, email);
+        rows.add(row);
+        created++;
+        return row;
+    }
+
+    Row reject(int index, String email, String error) {
+        Row row = new Row(index, email);
+        row.setError(error);
+        rows.add(row);
+        rejected++;
+        return row;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+}
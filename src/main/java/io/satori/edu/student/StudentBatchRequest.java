@@ -0,0 +1,66 @@
+package io.satori.edu.student;
+
+import java.time.LocalDate;
+
+/**
+ * One element of the JSON array posted to /api/v1/students/batch.
+ */
+public class StudentBatchRequest {
+
+    private String name;
+    private String email;
+    private Gender gender;
+    private LocalDate dob;
+    private Integer cohortId;
+
+    public StudentBatchRequest() {
+    }
+
+    public StudentBatchRequest(String name, String email, Gender gender, LocalDate dob, Integer cohortId) {
+        this.name = name;
+        this.email = email;
+        this.gender = gender;
+        this.dob = dob;
+        this.cohortId = cohortId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Gender getGender() {
+        return gender;
+    }
+
+    public void setGender(Gender gender) {
+        this.gender = gender;
+    }
+
+    public LocalDate getDob() {
+        return dob;
+    }
+
+    public void setDob(LocalDate dob) {
+        this.dob = dob;
+    }
+
+    public Integer getCohortId() {
+        return cohortId;
+    }
+
+    public void setCohortId(Integer cohortId) {
+        this.cohortId = cohortId;
+    }
+}
@@ -3,11 +3,15 @@ package io.satori.edu.student;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -22,18 +26,33 @@ public class StudentController { //Request API , Response API
         this.studentService = studentService;
     }
 
-    @GetMapping //GET student
-    public ResponseEntity<List<Student>> getStudents()
+    @GetMapping //GET student, one keyset page at a time: ?after={last id}&limit={page size}
+    public ResponseEntity<List<StudentSummary>> getStudents(
+        @RequestParam(required = false) Integer after,
+        @RequestParam(required = false) Integer limit)
     {
-        return ResponseEntity.ok(studentService.getStudent());
+        return studentService.getStudent(after, limit).toResponseEntity();
+    }
+
+    @GetMapping(path = "/export") //stream every student as application/x-ndjson, one JSON object per line
+    public void exportStudents(HttpServletResponse response) throws IOException
+    {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        studentService.exportStudents(response.getOutputStream());
     }
 
     @GetMapping(path = "/faculty/{facultyId}")
-    public ResponseEntity<List<Student>> getStudentsByFaculty(@PathVariable("facultyId") Integer facultyId)
+    public ResponseEntity<List<StudentSummary>> getStudentsByFaculty(@PathVariable("facultyId") Integer facultyId)
     {
         return ResponseEntity.ok(studentService.getStudentInWhichFaculty(facultyId));
     }
 
+    @GetMapping(path = "/{id}/transcript") //GET student with every course result and the average grade
+    public ResponseEntity<StudentTranscript> getTranscript(@PathVariable("id") Integer id)
+    {
+        return ResponseEntity.ok(studentService.getTranscript(id));
+    }
+
     @GetMapping(path = "/{id}") //GET student by id
     public ResponseEntity<Student> getStudentById(@PathVariable("id") Integer id) //@PathVariable is extract the values (studentID) from the URL
     {
@@ -56,6 +75,12 @@ public class StudentController { //Request API , Response API
         return new ResponseEntity<>(HttpStatus.CREATED);
     }
 
+    @PostMapping(path = "/batch") //POST a JSON array of students, each element carries its own cohortId
+    public ResponseEntity<StudentBatchReport> createStudents(InputStream body) throws IOException
+    {
+        return ResponseEntity.ok(studentService.addStudents(body));
+    }
+
     @DeleteMapping(path = "/{id}") //Delete student by id
     public ResponseEntity<Void> deleteStudent(@PathVariable("id") Integer id) //@PathVariable is extract the values (studentID) from the URL
     {
@@ -1,11 +1,22 @@
 package io.satori.edu.student;
 
+import io.satori.edu.export.NdjsonExporter;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository //Data Access Layer
 public interface StudentRepository extends JpaRepository<Student, Integer> { //Spring Data JPA
@@ -14,11 +25,97 @@ public interface StudentRepository extends JpaRepository<Student, Integer> { //S
     @Query("SELECT s FROM Student s WHERE s.email = ?1")
     Optional<Student> findStudentByEmail(String email);
 
-    @Query(value = "SELECT * " +
-            "FROM Student s JOIN Cohort c JOIN Faculty f " +
-            "ON s.Cohort_id = c.id and c.faculty_id = f.id " +
-            "WHERE f.id = ?1",nativeQuery = true)
-    List<Student> findStudentInWhichFaculty(int facultyId);
+    //Set-based duplicate check for bulk imports
+    @Query("SELECT s.email FROM Student s WHERE s.email IN ?1")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    @Query("SELECT new io.satori.edu.student.StudentSummary(s.id, s.name, s.email, s.gender, s.dob, c.id, c.name) " +
+            "FROM Student s LEFT JOIN s.cohort c WHERE s.facultyId = ?1")
+    List<StudentSummary> findStudentInWhichFaculty(int facultyId);
+
+    //The whole transcript in one query: one row per result, or a single row with null course and grade
+    @Query("SELECT new io.satori.edu.student.TranscriptRow(s.id, s.name, s.email, s.gender, s.dob, " +
+            "co.id, co.name, f.id, f.name, c.id, c.name, r.grade) " +
+            "FROM Student s LEFT JOIN s.cohort co LEFT JOIN co.faculty f " +
+            "LEFT JOIN s.result r LEFT JOIN r.course c " +
+            "WHERE s.id = ?1 ORDER BY c.id")
+    List<TranscriptRow> findTranscriptRows(int studentId);
+
+    //Faculty roster, answered from student_faculty_roster_idx without touching cohort or faculty
+    @Query("SELECT s.id AS id, s.name AS name, s.email AS email, s.cohort.id AS cohortId FROM Student s " +
+            "WHERE s.facultyId = ?1 AND s.id > ?2 ORDER BY s.id")
+    List<StudentRosterEntry> findFacultyRosterPageAfter(int facultyId, int afterId, Pageable pageable);
+
+    //Scalar rows for the search index, no entities in the persistence context
+    @Query("SELECT s.id, s.name, s.email FROM Student s")
+    List<Object[]> findAllSearchRows();
+
+    //Keep the denormalized faculty_id in step when a whole cohort moves to another faculty
+    @Modifying
+    @Query("UPDATE Student s SET s.facultyId = ?2 WHERE s.cohort.id = ?1")
+    int updateFacultyIdByCohort(int cohortId, int facultyId);
+
+    //studentId, has results in a course outside the faculty (0/1) for the students of a cohort.
+    //The rows stay locked until the transfer commits, so none of them can be changed or given a result meanwhile
+    @Query(value = "SELECT s.id, CASE WHEN EXISTS (SELECT 1 FROM result r JOIN course c ON c.id = r.course_id " +
+            "WHERE r.student_id = s.id AND c.faculty_id <> ?2) THEN 1 ELSE 0 END FROM student s " +
+            "WHERE s.Cohort_id = ?1 FOR UPDATE", nativeQuery = true)
+    List<Object[]> findCohortTransferRows(int cohortId, int facultyId);
+
+    //Same, for the given students of the cohort only
+    @Query(value = "SELECT s.id, CASE WHEN EXISTS (SELECT 1 FROM result r JOIN course c ON c.id = r.course_id " +
+            "WHERE r.student_id = s.id AND c.faculty_id <> ?2) THEN 1 ELSE 0 END FROM student s " +
+            "WHERE s.Cohort_id = ?1 AND s.id IN ?3 FOR UPDATE", nativeQuery = true)
+    List<Object[]> findCohortTransferRows(int cohortId, int facultyId, Collection<Integer> studentIds);
+
+    //Move every student of a cohort in one statement, faculty_id follows the new cohort.
+    //The faculty rule is repeated here, so a student that no longer passes it is never moved
+    @Modifying
+    @Query(value = "UPDATE student SET Cohort_id = ?2, faculty_id = ?3 WHERE Cohort_id = ?1 AND NOT EXISTS " +
+            "(SELECT 1 FROM result r JOIN course c ON c.id = r.course_id WHERE r.student_id = student.id AND c.faculty_id <> ?3)",
+            nativeQuery = true)
+    int transferCohort(int fromCohortId, int toCohortId, int facultyId);
+
+    @Modifying
+    @Query(value = "UPDATE student SET Cohort_id = ?2, faculty_id = ?3 WHERE Cohort_id = ?1 AND id IN ?4 AND NOT EXISTS " +
+            "(SELECT 1 FROM result r JOIN course c ON c.id = r.course_id WHERE r.student_id = student.id AND c.faculty_id <> ?3)",
+            nativeQuery = true)
+    int transferCohortStudents(int fromCohortId, int toCohortId, int facultyId, Collection<Integer> studentIds);
+
+    //Single-row delete without loading the entity, the count tells whether it existed.
+    //result and library_card rows go with it (ON DELETE CASCADE)
+    @Modifying
+    @Query(value = "DELETE FROM student WHERE id = ?1", nativeQuery = true)
+    int deleteStudentById(int studentId);
+
+    //Ids of the students a cohort or faculty delete removes, locked so no result can be added to them meanwhile
+    @Query(value = "SELECT s.id FROM student s WHERE s.Cohort_id = ?1 FOR UPDATE", nativeQuery = true)
+    List<Integer> lockIdsByCohort(int cohortId);
+
+    @Query(value = "SELECT s.id FROM student s WHERE s.Cohort_id IN (SELECT c.id FROM cohort c WHERE c.faculty_id = ?1) FOR UPDATE", nativeQuery = true)
+    List<Integer> lockIdsByFaculty(int facultyId);
+
+    //Set-based cascading deletes, once their results and library cards are gone
+    @Modifying
+    @Query(value = "DELETE FROM student WHERE Cohort_id = ?1", nativeQuery = true)
+    int deleteByCohort(int cohortId);
+
+    @Modifying
+    @Query(value = "DELETE FROM student WHERE Cohort_id IN (SELECT c.id FROM cohort c WHERE c.faculty_id = ?1)", nativeQuery = true)
+    int deleteByFaculty(int facultyId);
+
+    //Keyset pagination: seek on the primary key, Pageable only supplies the LIMIT
+    @Query("SELECT new io.satori.edu.student.StudentSummary(s.id, s.name, s.email, s.gender, s.dob, c.id, c.name) " +
+            "FROM Student s LEFT JOIN s.cohort c WHERE s.id > ?1 ORDER BY s.id")
+    List<StudentSummary> findStudentPageAfter(int afterId, Pageable pageable);
+
+    //Forward-only cursor for the NDJSON export, must be consumed inside a transaction
+    @QueryHints(value = {
+            @QueryHint(name = HINT_FETCH_SIZE, value = NdjsonExporter.FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")})
+    @Query("SELECT s FROM Student s LEFT JOIN FETCH s.cohort c LEFT JOIN FETCH c.faculty ORDER BY s.id")
+    Stream<Student> streamAllStudents();
 
 
 
@@ -0,0 +1,18 @@
+package io.satori.edu.student;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Lean row of a faculty roster, read straight from the covering index on student.faculty_id.
+ */
+@JsonPropertyOrder({"id", "name", "email", "cohortId"})
+public interface StudentRosterEntry {
+
+    int getId();
+
+    String getName();
+
+    String getEmail();
+
+    Integer getCohortId();
+}
@@ -1,39 +1,120 @@
 package io.satori.edu.student;
 
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.satori.edu.audit.AuditAction;
+import io.satori.edu.audit.AuditLog;
 import io.satori.edu.cohort.CohortRepository;
+import io.satori.edu.datasource.ReadWriteRoutingDataSource;
 import io.satori.edu.exception.APIEntityNotFoundException;
 import io.satori.edu.exception.BadRequestException;
+import io.satori.edu.export.NdjsonExporter;
+import io.satori.edu.pagination.CursorPage;
+import io.satori.edu.referencedata.ReferenceDataCache;
+import io.satori.edu.result.GradeDistribution;
+import io.satori.edu.search.SearchService;
+import io.satori.edu.search.SearchType;
+import io.satori.edu.result.ResultRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service //this annotation marks a Java class that performs some service, such as execute business logic
 public class StudentService {
 
+    //Rows validated and flushed together by addStudents, Hibernate splits each flush into JDBC batches
+    static final int IMPORT_CHUNK_SIZE = 500;
+
     private final StudentRepository studentRepository;
     private final CohortRepository cohortRepository;
+    private final NdjsonExporter ndjsonExporter;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final ReferenceDataCache referenceDataCache;
+    private final ResultRepository resultRepository;
+    private final GradeDistribution gradeDistribution;
+    private final TranscriptCache transcriptCache;
+    private final SearchService searchService;
+    private final AuditLog auditLog;
 
     @Autowired //studentRepository autowired inject into StudentService
-    public StudentService(StudentRepository repository, CohortRepository cohortRepository) {
+    public StudentService(StudentRepository repository, CohortRepository cohortRepository, NdjsonExporter ndjsonExporter,
+                          ObjectMapper objectMapper, EntityManager entityManager, ReferenceDataCache referenceDataCache,
+                          ResultRepository resultRepository, GradeDistribution gradeDistribution, TranscriptCache transcriptCache,
+                          SearchService searchService, AuditLog auditLog) {
         this.studentRepository = repository;
         this.cohortRepository = cohortRepository;
+        this.ndjsonExporter = ndjsonExporter;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.referenceDataCache = referenceDataCache;
+        this.resultRepository = resultRepository;
+        this.gradeDistribution = gradeDistribution;
+        this.transcriptCache = transcriptCache;
+        this.searchService = searchService;
+        this.auditLog = auditLog;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<StudentSummary> getStudent(Integer after, Integer limit)
+    {
+        List<StudentSummary> rows = studentRepository.findStudentPageAfter(after == null ? 0 : after, CursorPage.limitPlusOne(limit));
+        return CursorPage.of(rows, limit, student -> String.valueOf(student.getId()));
     }
 
-    public List<Student> getStudent()
+    @Transactional(readOnly = true)
+    public CursorPage<StudentRosterEntry> getFacultyRoster(Integer facultyId, Integer after, Integer limit)
     {
-        return studentRepository.findAll();
+        List<StudentRosterEntry> rows = studentRepository.findFacultyRosterPageAfter(facultyId, after == null ? 0 : after, CursorPage.limitPlusOne(limit));
+        return CursorPage.of(rows, limit, entry -> String.valueOf(entry.getId()));
     }
 
-    public List<Student> getStudentInWhichFaculty(Integer facultyId)
+    @Transactional(readOnly = true) //the stream holds an open cursor until the export is written
+    public long exportStudents(OutputStream out) throws IOException
+    {
+        try (Stream<Student> students = studentRepository.streamAllStudents()) {
+            return ndjsonExporter.write(students, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<StudentSummary> getStudentInWhichFaculty(Integer facultyId)
     {
         return studentRepository.findStudentInWhichFaculty(facultyId);
     }
 
+    @Transactional(readOnly = true)
+    public StudentTranscript getTranscript(Integer studentId)
+    {
+        return transcriptCache.get(studentId, () -> {
+            //cached until the next write to the student, so it must not come from a lagging replica
+            List<TranscriptRow> rows = ReadWriteRoutingDataSource.onPrimary(() -> studentRepository.findTranscriptRows(studentId));
+            if(rows.isEmpty())
+            {
+                throw new APIEntityNotFoundException("student with id "+studentId+ " was not found");
+            }
+            return StudentTranscript.of(rows);
+        });
+    }
+
+    @Transactional(readOnly = true)
     public Student getStudentById(Integer studentId)
     {
         return studentRepository.findById(studentId).orElseThrow(() //if(studentRepository.findById(studentId) == true) return Student else Error Exception
@@ -58,33 +139,145 @@ public class StudentService {
 //        return student;
 //    }
 
+    @Transactional
     public void addStudent(Student student,Integer CohortId) {
         Optional<Student> studentByEmail = studentRepository.findStudentByEmail(student.getEmail());
         if(studentByEmail.isPresent()) //if email of student is present in database
         {
             throw new BadRequestException("Email already exist in database");
         }
-        boolean exists = cohortRepository.existsById(CohortId);
+        boolean exists = referenceDataCache.findCohort(CohortId).isPresent();
         if(!exists)
         {
             throw new APIEntityNotFoundException("Cohort with id "+CohortId+ " was not found");
         }
         student.setCohort(cohortRepository.getById(CohortId));
         studentRepository.save(student);
-        System.out.println(student);
+        searchService.putAfterCommit(SearchType.STUDENT, student.getId(), student.getName(), student.getEmail());
+        auditLog.record(AuditAction.CREATE, "Student", student.getId());
+    }
+
+    /**
+     * Import a JSON array of students without holding the whole array in memory.
+     * Each chunk costs one email lookup, one cohort lookup and batched inserts, instead of five round trips per student.
+     * Invalid rows are reported and skipped; the valid ones are inserted in a single transaction.
+     */
+    @Transactional
+    public StudentBatchReport addStudents(InputStream body) throws IOException
+    {
+        StudentBatchReport report = new StudentBatchReport();
+        Set<String> batchEmails = new HashSet<>(); //catch duplicates inside the request itself
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestException("Request body must be a JSON array of students");
+            }
+            List<JsonNode> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+            int index = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                chunk.add(parser.readValueAsTree());
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    addStudentChunk(chunk, index, batchEmails, report);
+                    index += chunk.size();
+                    chunk.clear();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new BadRequestException("Every element of the array must be a student object");
+            }
+            addStudentChunk(chunk, index, batchEmails, report);
+        }
+        return report;
+    }
+
+    private void addStudentChunk(List<JsonNode> chunk, int firstIndex, Set<String> batchEmails, StudentBatchReport report)
+    {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<StudentBatchRequest> requests = new ArrayList<>(chunk.size());
+        for (JsonNode node : chunk) {
+            try {
+                requests.add(objectMapper.treeToValue(node, StudentBatchRequest.class));
+            } catch (IOException e) {
+                requests.add(null); //reported as malformed below
+            }
+        }
+        Set<String> emails = requests.stream().filter(Objects::nonNull).map(StudentBatchRequest::getEmail)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Integer> cohortIds = requests.stream().filter(Objects::nonNull).map(StudentBatchRequest::getCohortId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<String> takenEmails = emails.isEmpty() ? Set.of() : new HashSet<>(studentRepository.findExistingEmails(emails));
+        Set<Integer> knownCohorts = cohortIds.isEmpty() ? Set.of() : new HashSet<>(cohortRepository.findExistingIds(cohortIds));
+
+        List<Student> students = new ArrayList<>();
+        List<StudentBatchReport.Row> createdRows = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            StudentBatchRequest request = requests.get(i);
+            int index = firstIndex + i;
+            String error = validate(request, takenEmails, knownCohorts, batchEmails);
+            if (error != null) {
+                report.reject(index, request == null ? chunk.get(i).path("email").asText(null) : request.getEmail(), error);
+                continue;
+            }
+            batchEmails.add(request.getEmail());
+            students.add(new Student(request.getName(), request.getEmail(), request.getGender(), request.getDob(),
+                    cohortRepository.getById(request.getCohortId())));
+            createdRows.add(report.accept(index, request.getEmail()));
+        }
+        studentRepository.saveAll(students);
+        entityManager.flush();
+        for (int i = 0; i < students.size(); i++) {
+            createdRows.get(i).setId(students.get(i).getId());
+            searchService.putAfterCommit(SearchType.STUDENT, students.get(i).getId(), students.get(i).getName(), students.get(i).getEmail());
+            auditLog.record(AuditAction.CREATE, "Student", students.get(i).getId());
+        }
+        entityManager.clear(); //keep the persistence context the size of one chunk
     }
 
+    private String validate(StudentBatchRequest request, Set<String> takenEmails, Set<Integer> knownCohorts, Set<String> batchEmails)
+    {
+        if (request == null) {
+            return "Malformed student";
+        }
+        if (request.getName() == null || request.getName().isBlank()) {
+            return "Name is required";
+        }
+        if (request.getEmail() == null || request.getEmail().isBlank()) {
+            return "Email is required";
+        }
+        if (request.getGender() == null || request.getDob() == null) {
+            return "Gender and dob are required";
+        }
+        if (request.getCohortId() == null) {
+            return "cohortId is required";
+        }
+        if (takenEmails.contains(request.getEmail()) || batchEmails.contains(request.getEmail())) {
+            return "Email already exist in database";
+        }
+        if (!knownCohorts.contains(request.getCohortId())) {
+            return "Cohort with id "+request.getCohortId()+ " was not found";
+        }
+        return null;
+    }
+
+    @Transactional
     public void deleteStudent(Integer studentId)
     {
-        boolean exists = studentRepository.existsById(studentId);
-        if(!exists)
+        List<Object[]> grades = resultRepository.findCourseGradesOfStudent(studentId); //the delete cascades over the student's results
+        int deleted = studentRepository.deleteStudentById(studentId);
+        if(deleted == 0)
         {
             throw new APIEntityNotFoundException("student with id = "+studentId+ " does not exist in database");
         }
-        System.out.println("Student id = "+studentId+" has been delete");
-        studentRepository.deleteById(studentId);
+        for (Object[] grade : grades) {
+            gradeDistribution.recordRemoved((Integer) grade[0], (Integer) grade[1]);
+        }
+        transcriptCache.evictAfterCommit(studentId);
+        searchService.removeAfterCommit(SearchType.STUDENT, studentId);
+        auditLog.record(AuditAction.DELETE, "Student", studentId);
     }
 
+    @Transactional
     public void updateStudent(Integer studentId, String name, String email, Gender gender, LocalDate dob, Integer CohortId)
     {
         //Check studentId in database
@@ -123,6 +316,9 @@ public class StudentService {
             student.setCohort(cohortRepository.getById(CohortId));
         }
         studentRepository.save(student);
+        transcriptCache.evictAfterCommit(studentId);
+        searchService.putAfterCommit(SearchType.STUDENT, studentId, student.getName(), student.getEmail());
+        auditLog.record(AuditAction.UPDATE, "Student", studentId);
     }
 
 
@@ -0,0 +1,52 @@
+package io.satori.edu.student;
+
+import io.satori.edu.projection.NamedRef;
+
+import java.time.LocalDate;
+
+/**
+ * Student row for list endpoints, built by a JPQL constructor query.
+ * The cohort is reduced to its id and name, so neither Cohort nor Faculty entities are loaded or serialized.
+ */
+public class StudentSummary {
+
+    private final int id;
+    private final String name;
+    private final String email;
+    private final Gender gender;
+    private final LocalDate dob;
+    private final NamedRef cohort;
+
+    public StudentSummary(int id, String name, String email, Gender gender, LocalDate dob, Integer cohortId, String cohortName) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.gender = gender;
+        this.dob = dob;
+        this.cohort = NamedRef.of(cohortId, cohortName);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Gender getGender() {
+        return gender;
+    }
+
+    public LocalDate getDob() {
+        return dob;
+    }
+
+    public NamedRef getCohort() {
+        return cohort;
+    }
+}
@@ -0,0 +1,79 @@
+package io.satori.edu.student;
+
+import io.satori.edu.projection.NamedRef;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A student with every course result and the average grade, see GET /api/v1/students/{id}/transcript.
+ * Immutable, so one instance can be served from TranscriptCache to any number of readers.
+ */
+public class StudentTranscript {
+
+    private final StudentSummary student;
+    private final NamedRef faculty;
+    private final List<CourseGrade> results;
+    private final Double average;
+
+    private StudentTranscript(StudentSummary student, NamedRef faculty, List<CourseGrade> results, Double average) {
+        this.student = student;
+        this.faculty = faculty;
+        this.results = results;
+        this.average = average;
+    }
+
+    //rows come from StudentRepository.findTranscriptRows, all of the same student
+    static StudentTranscript of(List<TranscriptRow> rows) {
+        TranscriptRow first = rows.get(0);
+        List<CourseGrade> results = new ArrayList<>(rows.size());
+        long sum = 0;
+        for (TranscriptRow row : rows) {
+            if (row.courseId != null) {
+                results.add(new CourseGrade(new NamedRef(row.courseId, row.courseName), row.grade));
+                sum += row.grade;
+            }
+        }
+        StudentSummary student = new StudentSummary(first.studentId, first.name, first.email, first.gender, first.dob,
+                first.cohortId, first.cohortName);
+        return new StudentTranscript(student, NamedRef.of(first.facultyId, first.facultyName),
+                Collections.unmodifiableList(results), results.isEmpty() ? null : (double) sum / results.size());
+    }
+
+    public StudentSummary getStudent() {
+        return student;
+    }
+
+    public NamedRef getFaculty() {
+        return faculty;
+    }
+
+    public List<CourseGrade> getResults() {
+        return results;
+    }
+
+    //null while the student has no results
+    public Double getAverage() {
+        return average;
+    }
+
+    public static class CourseGrade {
+
+        private final NamedRef course;
+        private final int grade;
+
+        CourseGrade(NamedRef course, int grade) {
+            this.course = course;
+            this.grade = grade;
+        }
+
+        public NamedRef getCourse() {
+            return course;
+        }
+
+        public int getGrade() {
+            return grade;
+        }
+    }
+}
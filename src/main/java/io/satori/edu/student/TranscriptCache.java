@@ -0,0 +1,90 @@
+package io.satori.edu.student;
+
+import io.satori.edu.transaction.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Least recently used transcripts, by student id.
+ * Writers evict after commit: ResultService for one student's results, StudentService for the student itself,
+ * and cohort, course and faculty changes clear everything because their names are on every transcript.
+ * Those evictions only reach this node, so an entry older than transcript-cache.ttl-ms is loaded again:
+ * a write made through another node shows up here within that time.
+ */
+@Component
+public class TranscriptCache {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<Integer, Entry> transcripts; //guarded by this
+    //Bumped by every eviction, a load that overlapped one is served but not cached, it may predate the write
+    private final AtomicLong generation = new AtomicLong();
+
+    public TranscriptCache(@Value("${transcript-cache.max-entries:10000}") int maxEntries,
+                           @Value("${transcript-cache.ttl-ms:60000}") long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.transcripts = new LinkedHashMap<Integer, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                return size() > TranscriptCache.this.maxEntries;
+            }
+        };
+    }
+
+    public StudentTranscript get(int studentId, Supplier<StudentTranscript> loader) {
+        synchronized (this) {
+            Entry cached = transcripts.get(studentId);
+            if (cached != null) {
+                if (System.nanoTime() - cached.loadedNanos < ttlNanos) {
+                    return cached.transcript;
+                }
+                transcripts.remove(studentId); //expired, may miss writes made through other nodes
+            }
+        }
+        long loadedAt = generation.get();
+        long loadStarted = System.nanoTime(); //the age counts from before the load, it may already be stale when it ends
+        StudentTranscript transcript = loader.get();
+        synchronized (this) {
+            if (generation.get() == loadedAt) {
+                transcripts.put(studentId, new Entry(transcript, loadStarted));
+            }
+        }
+        return transcript;
+    }
+
+    public void evictAfterCommit(int studentId) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                generation.incrementAndGet();
+                transcripts.remove(studentId);
+            }
+        });
+    }
+
+    public void clearAfterCommit() {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                generation.incrementAndGet();
+                transcripts.clear();
+            }
+        });
+    }
+
+    private static final class Entry {
+
+        private final StudentTranscript transcript;
+        private final long loadedNanos; //System.nanoTime()
+
+        private Entry(StudentTranscript transcript, long loadedNanos) {
+            this.transcript = transcript;
+            this.loadedNanos = loadedNanos;
+        }
+    }
+}
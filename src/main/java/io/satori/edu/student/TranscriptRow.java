@@ -0,0 +1,39 @@
+package io.satori.edu.student;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the transcript query: the student with one of its results, or with none (course and grade null).
+ */
+public class TranscriptRow {
+
+    final int studentId;
+    final String name;
+    final String email;
+    final Gender gender;
+    final LocalDate dob;
+    final Integer cohortId;
+    final String cohortName;
+    final Integer facultyId;
+    final String facultyName;
+    final Integer courseId;
+    final String courseName;
+    final Integer grade;
+
+    public TranscriptRow(int studentId, String name, String email, Gender gender, LocalDate dob,
+                         Integer cohortId, String cohortName, Integer facultyId, String facultyName,
+                         Integer courseId, String courseName, Integer grade) {
+        this.studentId = studentId;
+        this.name = name;
+        this.email = email;
+        this.gender = gender;
+        this.dob = dob;
+        this.cohortId = cohortId;
+        this.cohortName = cohortName;
+        this.facultyId = facultyId;
+        this.facultyName = facultyName;
+        this.courseId = courseId;
+        this.courseName = courseName;
+        this.grade = grade;
+    }
+}
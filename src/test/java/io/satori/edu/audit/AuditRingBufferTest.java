@@ -0,0 +1,99 @@
+package io.satori.edu.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Request threads offer while the audit writer drains: nothing may be lost or duplicated unless it was counted as dropped.
+ */
+public class AuditRingBufferTest {
+
+    @Test
+    public void testDropsAndCountsWhenFull() {
+        AuditRingBuffer buffer = new AuditRingBuffer(2);
+        assertThat(buffer.offer(event(1))).isTrue();
+        assertThat(buffer.offer(event(2))).isTrue();
+        assertThat(buffer.offer(event(3))).isFalse();
+        assertThat(buffer.dropped()).isEqualTo(1);
+        assertThat(buffer.size()).isEqualTo(2);
+
+        List<AuditEvent> batch = new ArrayList<>();
+        assertThat(buffer.drainTo(batch, 10)).isEqualTo(2);
+        assertThat(batch).extracting(AuditEvent::getSequence).containsExactly(1L, 2L);
+        assertThat(buffer.size()).isZero();
+
+        //the drained slots are handed to the next lap
+        for (long lap = 0; lap < 3; lap++) {
+            assertThat(buffer.offer(event(10 + 2 * lap))).isTrue();
+            assertThat(buffer.offer(event(11 + 2 * lap))).isTrue();
+            assertThat(buffer.offer(event(99))).isFalse();
+            batch.clear();
+            assertThat(buffer.drainTo(batch, 1)).isEqualTo(1);
+            assertThat(buffer.drainTo(batch, 10)).isEqualTo(1);
+            assertThat(batch).extracting(AuditEvent::getSequence).containsExactly(10 + 2 * lap, 11 + 2 * lap);
+        }
+        assertThat(buffer.dropped()).isEqualTo(4);
+    }
+
+    @Test
+    public void testConcurrentProducersWithOneConsumer() throws InterruptedException {
+        int producers = 8;
+        int perProducer = 20_000;
+        AuditRingBuffer buffer = new AuditRingBuffer(256);
+        AtomicLong sequence = new AtomicLong();
+        AtomicLong offered = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(producers);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        if (buffer.offer(event(sequence.incrementAndGet()))) {
+                            offered.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        boolean[] seen = new boolean[producers * perProducer + 1];
+        List<AuditEvent> batch = new ArrayList<>();
+        long drained = 0;
+        start.countDown();
+        while (done.getCount() > 0 || buffer.size() > 0) {
+            batch.clear();
+            buffer.drainTo(batch, 64);
+            for (AuditEvent event : batch) {
+                int seq = (int) event.getSequence();
+                assertThat(seen[seq]).as("event %s drained twice", seq).isFalse();
+                seen[seq] = true;
+            }
+            drained += batch.size();
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(drained).isEqualTo(offered.get());
+        assertThat(drained + buffer.dropped()).isEqualTo((long) producers * perProducer);
+    }
+
+    private static AuditEvent event(long sequence) {
+        return new AuditEvent(sequence, Instant.EPOCH, AuditAction.CREATE, "student", String.valueOf(sequence));
+    }
+}
@@ -0,0 +1,156 @@
+package io.satori.edu.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.Driver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and its replica; each one answers with its own name.
+ */
+public class ReadWriteRoutingDataSourceTest {
+
+    private static final long CONNECTION_TIMEOUT_MS = 500;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DataSource primary;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    public void setUp() {
+        primary = database("primary");
+        useReplica(database("replica"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void testReadOnlyTransactionsReadTheReplica() {
+        assertThat(whoAmI(readOnly)).isEqualTo("replica");
+        assertThat(meterRegistry.counter("datasource.routing.connections", "target", "replica").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testEverythingElseGoesToThePrimary() {
+        assertThat(whoAmI(readWrite)).isEqualTo("primary");
+        assertThat(whoAmI()).isEqualTo("primary"); //no transaction at all
+        String forced = readOnly.execute(status -> ReadWriteRoutingDataSource.onPrimary(this::whoAmI));
+        assertThat(forced).isEqualTo("primary");
+    }
+
+    @Test
+    public void testReadsStayOnThePrimaryAfterAWriteInTheSameRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertThat(whoAmI(readOnly)).isEqualTo("replica");
+
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE whoami SET name = name"));
+        assertThat(whoAmI(readOnly)).isEqualTo("primary");
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertThat(whoAmI(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    public void testADownReplicaCostsOneConnectionTimeoutThenBacksOff() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:tcp://192.0.2.1:9092/mem:unreachable"); //TEST-NET-1, never routed
+        config.setConnectionTimeout(CONNECTION_TIMEOUT_MS);
+        config.setInitializationFailTimeout(-1); //started lazily, like the replica pools of ReadWriteRoutingConfig
+        try (HikariDataSource replica = new HikariDataSource(config)) {
+            useReplica(replica, Duration.ofMinutes(1));
+
+            long started = System.nanoTime();
+            assertThat(whoAmI(readOnly)).isEqualTo("primary");
+            long firstMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            assertThat(firstMs).isBetween(CONNECTION_TIMEOUT_MS - 50, CONNECTION_TIMEOUT_MS + 2_000);
+
+            started = System.nanoTime();
+            for (int i = 0; i < 10; i++) {
+                assertThat(whoAmI(readOnly)).isEqualTo("primary");
+            }
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(CONNECTION_TIMEOUT_MS);
+            assertThat(meterRegistry.counter("datasource.routing.replica.fallbacks").count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testAReplicaRejoinsTheRotationAfterTheBackOff() throws InterruptedException {
+        DataSource replica = database("replica");
+        AtomicBoolean down = new AtomicBoolean(true);
+        useReplica(new DelegatingDataSource(replica) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (down.get()) {
+                    throw new SQLException("Connection refused");
+                }
+                return super.getConnection();
+            }
+        }, Duration.ofMillis(200));
+
+        assertThat(whoAmI(readOnly)).isEqualTo("primary");
+        down.set(false);
+        assertThat(whoAmI(readOnly)).isEqualTo("primary"); //still backing off
+        Thread.sleep(300);
+        assertThat(whoAmI(readOnly)).isEqualTo("replica");
+        assertThat(meterRegistry.counter("datasource.routing.replica.fallbacks").count()).isEqualTo(1);
+    }
+
+    private void useReplica(DataSource replica) {
+        useReplica(replica, Duration.ofSeconds(30));
+    }
+
+    private void useReplica(DataSource replica, Duration backoff) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, Collections.singletonList(replica), backoff, meterRegistry);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    private String whoAmI(TransactionTemplate transaction) {
+        return transaction.execute(status -> whoAmI());
+    }
+
+    private String whoAmI() {
+        return jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new SimpleDriverDataSource(new Driver(), "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS whoami (name VARCHAR(20))");
+        jdbcTemplate.update("DELETE FROM whoami");
+        jdbcTemplate.update("INSERT INTO whoami VALUES (?)", name);
+        return dataSource;
+    }
+}
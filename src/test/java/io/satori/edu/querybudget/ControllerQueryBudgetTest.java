@@ -0,0 +1,379 @@
+package io.satori.edu.querybudget;
+
+import io.satori.edu.result.GradeDistribution;
+import io.satori.edu.search.SearchHit;
+import io.satori.edu.search.SearchService;
+import io.satori.edu.search.SearchType;
+import io.satori.edu.student.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Baseline SQL statement budgets for the read endpoints and the batched writes.
+ * A budget going up means a new query (often an N+1) slipped into the request path:
+ * fix the query, or raise the budget in the same commit and say why.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+@Import(QueryBudgetConfiguration.class)
+public class ControllerQueryBudgetTest {
+
+    //Ids far above the seed data, for rows inserted straight through JDBC
+    private static final int EXTRA_ID = 100_000;
+    private static final int EXTRA_STUDENTS = 20;
+    //Reads of what goes away (2 and 4), one DELETE per table of the subtree (4 and 6),
+    //then 3 selects reloading the reference data after commit
+    private static final int DELETE_COHORT_BUDGET = 9;
+    private static final int DELETE_FACULTY_BUDGET = 13;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private QueryBudget queryBudget;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GradeDistribution gradeDistribution;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    public void removeExtraRows() {
+        jdbcTemplate.update("DELETE FROM library_card WHERE id >= ?", EXTRA_ID);
+        jdbcTemplate.update("DELETE FROM result WHERE student_id >= ?", EXTRA_ID);
+        jdbcTemplate.update("DELETE FROM student WHERE id >= ?", EXTRA_ID);
+        jdbcTemplate.update("DELETE FROM cohort WHERE id >= ?", EXTRA_ID);
+        jdbcTemplate.update("DELETE FROM course WHERE id >= ?", EXTRA_ID);
+        jdbcTemplate.update("DELETE FROM faculty WHERE id >= ?", EXTRA_ID);
+        gradeDistribution.rebuild(); //the rows above were written around the services
+        searchService.rebuild();
+    }
+
+    /*
+     * Student endpoints
+     */
+
+    @Test
+    public void testStudentPage() {
+        assertOk(queryBudget.assertAtMost(1, () -> get("/api/v1/students")));
+    }
+
+    @Test
+    public void testOneStudent() {
+        assertOk(queryBudget.assertAtMost(1, () -> get("/api/v1/students/1")));
+    }
+
+    @Test
+    public void testStudentsInFaculty() {
+        assertOk(queryBudget.assertAtMost(1, () -> get("/api/v1/students/faculty/1")));
+        assertOk(queryBudget.assertAtMost(1, () -> get("/api/v1/faculties/1/students")));
+    }
+
+    @Test
+    public void testTranscript() {
+        assertOk(queryBudget.assertAtMost(1, () -> get("/api/v1/students/2/transcript")));
+        assertOk(queryBudget.assertAtMost(0, () -> get("/api/v1/students/2/transcript"))); //cached
+    }
+
+    /*
+     * Result endpoints
+     */
+
+    @Test
+    public void testResultPage() {
+        assertOk(queryBudget.assertAtMost(1, () -> get("/api/v1/results")));
+    }
+
+    @Test
+    public void testResultsByGrade() {
+        assertOk(queryBudget.assertAtMost(1, () -> get("/api/v1/results/grade/0?limit=50")));
+    }
+
+    @Test
+    public void testExports() {
+        assertOk(queryBudget.assertAtMost(1, () -> get("/api/v1/students/export")));
+        assertOk(queryBudget.assertAtMost(1, () -> get("/api/v1/results/export")));
+    }
+
+    /*
+     * Reference data and statistics are served from memory
+     */
+
+    @Test
+    public void testReferenceData() {
+        assertOk(queryBudget.assertAtMost(0, () -> get("/api/v1/faculties")));
+        assertOk(queryBudget.assertAtMost(0, () -> get("/api/v1/cohorts")));
+        assertOk(queryBudget.assertAtMost(0, () -> get("/api/v1/cohorts/1")));
+        assertOk(queryBudget.assertAtMost(0, () -> get("/api/v1/courses")));
+    }
+
+    @Test
+    public void testNotModifiedReferenceData() {
+        for (String url : new String[] {"/api/v1/faculties", "/api/v1/cohorts", "/api/v1/courses"}) {
+            String eTag = get(url).getHeaders().getETag();
+            assertThat(eTag).as("ETag of %s", url).isNotNull();
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setIfNoneMatch(eTag);
+            ResponseEntity<String> response = queryBudget.assertAtMost(0,
+                    () -> restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class));
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+            assertThat(response.getBody()).isNull();
+        }
+    }
+
+    @Test
+    public void testGradeStats() {
+        assertOk(queryBudget.assertAtMost(0, () -> get("/api/v1/courses/1/grades/stats?grade=7")));
+    }
+
+    @Test
+    public void testSearch() {
+        assertOk(queryBudget.assertAtMost(0, () -> get("/api/v1/search?q=a")));
+        assertOk(queryBudget.assertAtMost(0, () -> get("/api/v1/search?q=com&type=student")));
+    }
+
+    /*
+     * Statement counts must not grow with the number of rows returned
+     */
+
+    @Test
+    public void testListsDoNotGrowWithRows() {
+        String[] urls = {
+                "/api/v1/students",
+                "/api/v1/students/faculty/1",
+                "/api/v1/faculties/1/students",
+                "/api/v1/results",
+                "/api/v1/results/grade/0",
+                "/api/v1/students/export",
+                "/api/v1/results/export",
+        };
+        int[] before = new int[urls.length];
+        for (int i = 0; i < urls.length; i++) {
+            String url = urls[i];
+            before[i] = queryBudget.count(() -> assertOk(get(url)));
+        }
+
+        insertExtraStudents();
+
+        for (int i = 0; i < urls.length; i++) {
+            String url = urls[i];
+            assertThat(queryBudget.count(() -> assertOk(get(url))))
+                    .as("SQL statements for %s", url)
+                    .isEqualTo(before[i]);
+        }
+    }
+
+    /*
+     * Batched writes
+     */
+
+    @Test
+    public void testCourseGradesAreOneBatch() {
+        insertExtraStudents();
+        Integer courseId = jdbcTemplate.queryForObject(
+                "SELECT course_id FROM result WHERE student_id = ?", Integer.class, EXTRA_ID);
+        StringBuilder grades = new StringBuilder("[");
+        for (int i = 0; i < EXTRA_STUDENTS; i++) {
+            grades.append(i == 0 ? "" : ",").append("{\"studentId\":").append(EXTRA_ID + i)
+                    .append(",\"grade\":").append((i + 1) % 11).append('}');
+        }
+        grades.append(",{\"studentId\":").append(EXTRA_ID + EXTRA_STUDENTS).append(",\"grade\":5}]"); //not enrolled
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<String> response = queryBudget.assertAtMost(3, //course check, current grades, one UPDATE batch
+                () -> restTemplate.exchange("/api/v1/courses/" + courseId + "/grades", HttpMethod.PUT,
+                        new HttpEntity<>(grades.toString(), headers), String.class));
+        assertOk(response);
+        assertThat(response.getBody()).contains("\"updated\":" + EXTRA_STUDENTS, "\"notEnrolled\":[" + (EXTRA_ID + EXTRA_STUDENTS) + "]");
+        assertThat(jdbcTemplate.queryForObject("SELECT grade FROM result WHERE student_id = ?", Integer.class, EXTRA_ID))
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void testCohortEnrollmentIsOneInsert() {
+        insertExtraStudents();
+        Integer cohortId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM cohort WHERE faculty_id = 1", Integer.class);
+        Integer courseId = jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM course WHERE faculty_id = 1", Integer.class);
+        List<Integer> cohortStudents = jdbcTemplate.queryForList(
+                "SELECT id FROM student WHERE cohort_id = ?", Integer.class, cohortId);
+        List<Integer> enrolledBefore = jdbcTemplate.queryForList(
+                "SELECT student_id FROM result WHERE course_id = ?", Integer.class, courseId);
+        int alreadyEnrolled = (int) cohortStudents.stream().filter(enrolledBefore::contains).count();
+        String url = "/api/v1/courses/" + courseId + "/enroll-cohort/" + cohortId;
+        try {
+            ResponseEntity<String> response = queryBudget.assertAtMost(2, //the cohort's enrolments, one INSERT ... SELECT
+                    () -> restTemplate.postForEntity(url, null, String.class));
+            assertOk(response);
+            assertThat(response.getBody()).contains("\"inserted\":" + (cohortStudents.size() - alreadyEnrolled),
+                    "\"skipped\":" + alreadyEnrolled);
+
+            ResponseEntity<String> again = queryBudget.assertAtMost(1, () -> restTemplate.postForEntity(url, null, String.class));
+            assertOk(again);
+            assertThat(again.getBody()).contains("\"inserted\":0", "\"skipped\":" + cohortStudents.size());
+        } finally {
+            for (Integer studentId : cohortStudents) {
+                if (!enrolledBefore.contains(studentId)) {
+                    jdbcTemplate.update("DELETE FROM result WHERE student_id = ? AND course_id = ?", studentId, courseId);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCohortTransferIsOneUpdate() {
+        insertExtraStudents();
+        Integer fromId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM cohort WHERE faculty_id = 1", Integer.class);
+        Integer toId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM cohort WHERE faculty_id = 1", Integer.class);
+        Integer otherFacultyId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM cohort WHERE faculty_id <> 1", Integer.class);
+        StringBuilder studentIds = new StringBuilder();
+        for (int i = 0; i < EXTRA_STUDENTS; i++) {
+            studentIds.append(i == 0 ? "" : ",").append(EXTRA_ID + i);
+        }
+
+        ResponseEntity<String> response = queryBudget.assertAtMost(2, //the selected students with the faculty rule, one UPDATE
+                () -> restTemplate.postForEntity("/api/v1/cohorts/" + fromId + "/transfer?to=" + toId
+                        + "&studentIds=" + studentIds + ",-1", null, String.class));
+        assertOk(response);
+        assertThat(response.getBody()).contains("\"transferred\":" + EXTRA_STUDENTS, "\"notInCohort\":[-1]");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student WHERE id >= ? AND cohort_id = ? AND faculty_id = 1",
+                Integer.class, EXTRA_ID, toId)).isEqualTo(EXTRA_STUDENTS);
+
+        //they have results in faculty 1 courses, so they can't leave the faculty
+        ResponseEntity<String> refused = queryBudget.assertAtMost(1, () -> restTemplate.postForEntity(
+                "/api/v1/cohorts/" + toId + "/transfer?to=" + otherFacultyId + "&studentIds=" + studentIds, null, String.class));
+        assertThat(refused.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student WHERE id >= ? AND cohort_id = ?",
+                Integer.class, EXTRA_ID, toId)).isEqualTo(EXTRA_STUDENTS);
+
+        //the UPDATE repeats the rule, for a student that gets such a result after the check; rolled back either way
+        Integer otherFaculty = jdbcTemplate.queryForObject("SELECT faculty_id FROM cohort WHERE id = ?", Integer.class, otherFacultyId);
+        transactionTemplate.executeWithoutResult(status -> {
+            studentRepository.transferCohort(toId, otherFacultyId, otherFaculty);
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student WHERE id >= ? AND cohort_id = ?",
+                    Integer.class, EXTRA_ID, toId)).isEqualTo(EXTRA_STUDENTS);
+            status.setRollbackOnly();
+        });
+    }
+
+    @Test
+    public void testSingleRowDeletes() {
+        insertExtraStudents();
+        Integer courseId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM course WHERE faculty_id = 1", Integer.class);
+
+        queryBudget.assertAtMost(2, //the grade, then the DELETE
+                () -> restTemplate.delete("/api/v1/results/student/" + EXTRA_ID + "/course/" + courseId));
+        queryBudget.assertAtMost(1, () -> restTemplate.delete("/api/spring-boot/library-card/delete/" + (EXTRA_ID + 1)));
+        ResponseEntity<String> student = queryBudget.assertAtMost(2, //its grades, then the DELETE that cascades in the database
+                () -> restTemplate.exchange("/api/v1/students/" + (EXTRA_ID + 2), HttpMethod.DELETE, null, String.class));
+        assertThat(student.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM result WHERE student_id IN (?, ?)",
+                Integer.class, EXTRA_ID, EXTRA_ID + 2)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM library_card WHERE id IN (?, ?)",
+                Integer.class, EXTRA_ID + 1, EXTRA_ID + 2)).isZero();
+
+        ResponseEntity<String> missing = queryBudget.assertAtMost(2,
+                () -> restTemplate.exchange("/api/v1/students/" + (EXTRA_ID + 2), HttpMethod.DELETE, null, String.class));
+        assertThat(missing.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    public void testCascadingDeletesDoNotGrowWithRows() {
+        insertExtraFaculty();
+        long gradesBefore = gradeDistribution.getStats(EXTRA_ID, null).getCount();
+        ResponseEntity<String> cohort = queryBudget.assertAtMost(DELETE_COHORT_BUDGET,
+                () -> restTemplate.exchange("/api/v1/cohorts/" + EXTRA_ID, HttpMethod.DELETE, null, String.class));
+        assertOk(cohort);
+        assertThat(cohort.getBody()).contains("\"cohorts\":1", "\"students\":" + EXTRA_STUDENTS,
+                "\"results\":" + EXTRA_STUDENTS, "\"libraryCards\":" + EXTRA_STUDENTS);
+        //The grade counters and the search index lose exactly the deleted rows, without a rebuild
+        assertThat(gradesBefore).isEqualTo(EXTRA_STUDENTS);
+        assertThat(gradeDistribution.getStats(EXTRA_ID, null).getCount()).isZero();
+        assertThat(searchService.search("Budget", null, SearchService.MAX_LIMIT))
+                .extracting(SearchHit::getType).doesNotContain(SearchType.STUDENT, SearchType.COHORT).contains(SearchType.COURSE);
+
+        jdbcTemplate.update("DELETE FROM course WHERE id = ?", EXTRA_ID);
+        jdbcTemplate.update("DELETE FROM faculty WHERE id = ?", EXTRA_ID);
+        insertExtraFaculty();
+        ResponseEntity<String> faculty = queryBudget.assertAtMost(DELETE_FACULTY_BUDGET,
+                () -> restTemplate.exchange("/api/v1/faculties/" + EXTRA_ID, HttpMethod.DELETE, null, String.class));
+        assertOk(faculty);
+        assertThat(faculty.getBody()).contains("\"faculties\":1", "\"cohorts\":1", "\"courses\":1",
+                "\"students\":" + EXTRA_STUDENTS, "\"results\":" + EXTRA_STUDENTS, "\"libraryCards\":" + EXTRA_STUDENTS);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student WHERE id >= ?", Integer.class, EXTRA_ID)).isZero();
+        assertThat(gradeDistribution.getStats(EXTRA_ID, null).getCount()).isZero();
+        assertThat(searchService.search("Budget", null, SearchService.MAX_LIMIT)).isEmpty();
+    }
+
+    //A faculty of its own, with one cohort and one course: EXTRA_STUDENTS students, each with a result and a card
+    private void insertExtraFaculty() {
+        jdbcTemplate.update("INSERT INTO faculty (id, name) VALUES (?, 'Budget faculty')", EXTRA_ID);
+        jdbcTemplate.update("INSERT INTO cohort (id, name, faculty_id) VALUES (?, 'Budget cohort', ?)", EXTRA_ID, EXTRA_ID);
+        jdbcTemplate.update("INSERT INTO course (id, name, faculty_id) VALUES (?, 'Budget course', ?)", EXTRA_ID, EXTRA_ID);
+        for (int i = 0; i < EXTRA_STUDENTS; i++) {
+            int id = EXTRA_ID + i;
+            jdbcTemplate.update("INSERT INTO student (id, name, email, gender, dob, cohort_id, faculty_id) "
+                            + "VALUES (?, ?, ?, 'Male', DATE '2000-01-01', ?, ?)",
+                    id, "Budget " + i, "budget" + i + "@example.com", EXTRA_ID, EXTRA_ID);
+            jdbcTemplate.update("INSERT INTO result (student_id, course_id, grade) VALUES (?, ?, ?)", id, EXTRA_ID, i % 11);
+            jdbcTemplate.update("INSERT INTO library_card (id, card_number, student_id) VALUES (?, ?, ?)", id, "B" + i, id);
+        }
+        gradeDistribution.rebuild(); //written around the services, like the cleanup
+        searchService.rebuild();
+    }
+
+    private void insertExtraStudents() {
+        Integer cohortId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM cohort WHERE faculty_id = 1", Integer.class);
+        Integer courseId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM course WHERE faculty_id = 1", Integer.class);
+        for (int i = 0; i < EXTRA_STUDENTS; i++) {
+            int id = EXTRA_ID + i;
+            jdbcTemplate.update("INSERT INTO student (id, name, email, gender, dob, cohort_id, faculty_id) "
+                            + "VALUES (?, ?, ?, 'Male', DATE '2000-01-01', ?, 1)",
+                    id, "Budget " + i, "budget" + i + "@example.com", cohortId);
+            jdbcTemplate.update("INSERT INTO result (student_id, course_id, grade) VALUES (?, ?, ?)",
+                    id, courseId, i % 11);
+            jdbcTemplate.update("INSERT INTO library_card (id, card_number, student_id) VALUES (?, ?, ?)",
+                    id, "B" + i, id);
+        }
+    }
+
+    private ResponseEntity<String> get(String url) {
+        return restTemplate.getForEntity(url, String.class);
+    }
+
+    private static void assertOk(ResponseEntity<String> response) {
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+}
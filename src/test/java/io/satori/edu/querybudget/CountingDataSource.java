@@ -0,0 +1,72 @@
+package io.satori.edu.querybudget;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Dynamic proxies around the DataSource, its connections and their statements that report every execute call.
+ * Everything else, including unwrap() used by the pool metrics, goes straight to the real objects.
+ */
+final class CountingDataSource {
+
+    private CountingDataSource() {
+    }
+
+    static DataSource wrap(DataSource dataSource, SqlStatementCounter counter) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection ? connection((Connection) result, counter) : result;
+        });
+    }
+
+    private static Connection connection(Connection connection, SqlStatementCounter counter) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof CallableStatement) {
+                return statement(CallableStatement.class, (Statement) result, (String) args[0], counter);
+            }
+            if (result instanceof PreparedStatement) {
+                return statement(PreparedStatement.class, (Statement) result, (String) args[0], counter);
+            }
+            if (result instanceof Statement) {
+                return statement(Statement.class, (Statement) result, null, counter);
+            }
+            return result;
+        });
+    }
+
+    private static <S extends Statement> S statement(Class<S> type, Statement statement, String preparedSql, SqlStatementCounter counter) {
+        return proxy(type, statement, (target, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                boolean sqlArgument = args != null && args.length > 0 && args[0] instanceof String;
+                counter.executed(sqlArgument ? (String) args[0] : method.getName().equals("executeBatch") ? null : preparedSql);
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private interface Handler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+        return (T) Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.satori.edu.querybudget;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Assert how many SQL statements a piece of code may issue, e.g.
+ * {@code queryBudget.assertAtMost(1, () -> restTemplate.getForEntity("/api/v1/students", String.class))}.
+ * On failure the message lists every statement that ran, which is usually enough to spot the N+1.
+ */
+public class QueryBudget {
+
+    private final SqlStatementCounter counter;
+
+    public QueryBudget(SqlStatementCounter counter) {
+        this.counter = counter;
+    }
+
+    public <T> T assertAtMost(int maxStatements, Supplier<T> action) {
+        counter.reset();
+        T result = action.get();
+        assertThat(counter.count())
+                .as("SQL statements, budget %d:%n%s", maxStatements, String.join("\n", counter.statements()))
+                .isLessThanOrEqualTo(maxStatements);
+        return result;
+    }
+
+    public void assertAtMost(int maxStatements, Runnable action) {
+        assertAtMost(maxStatements, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public int count(Runnable action) {
+        counter.reset();
+        action.run();
+        return counter.count();
+    }
+}
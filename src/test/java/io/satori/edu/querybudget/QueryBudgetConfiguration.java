@@ -0,0 +1,36 @@
+package io.satori.edu.querybudget;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Import into a @SpringBootTest to count the SQL statements of the application DataSource:
+ * {@code @Import(QueryBudgetConfiguration.class)}, then autowire {@link QueryBudget}.
+ */
+@TestConfiguration
+public class QueryBudgetConfiguration {
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    public QueryBudget queryBudget(SqlStatementCounter sqlStatementCounter) {
+        return new QueryBudget(sqlStatementCounter);
+    }
+
+    @Bean
+    public static BeanPostProcessor countingDataSourcePostProcessor(ObjectProvider<SqlStatementCounter> counter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource ? CountingDataSource.wrap((DataSource) bean, counter.getObject()) : bean;
+            }
+        };
+    }
+}
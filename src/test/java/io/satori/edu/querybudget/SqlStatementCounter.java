@@ -0,0 +1,32 @@
+package io.satori.edu.querybudget;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Every statement executed through the counting DataSource, whatever the thread
+ * (the test thread for service calls, a Tomcat thread for HTTP requests).
+ * A JDBC batch counts as one statement: it is one round trip.
+ */
+public class SqlStatementCounter {
+
+    private final Queue<String> statements = new ConcurrentLinkedQueue<>();
+
+    void executed(String sql) {
+        statements.add(sql == null ? "<batch>" : sql);
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+
+    public int count() {
+        return statements.size();
+    }
+
+    public List<String> statements() {
+        return new ArrayList<>(statements);
+    }
+}
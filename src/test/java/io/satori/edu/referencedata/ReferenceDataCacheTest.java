@@ -0,0 +1,77 @@
+package io.satori.edu.referencedata;
+
+import io.satori.edu.cohort.Cohort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The snapshot is shared by every request, so what the cache hands out must never be the shared state,
+ * and a miss on a row written behind its back must be answered without a full reload on the caller's thread.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+public class ReferenceDataCacheTest {
+
+    private static final int ELSEWHERE_ID = 900_001;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void deleteRowWrittenElsewhere() {
+        jdbcTemplate.update("DELETE FROM cohort WHERE id = ?", ELSEWHERE_ID);
+        referenceDataCache.reload();
+    }
+
+    @Test
+    public void testCallersGetTheirOwnCopies() {
+        Cohort first = referenceDataCache.findCohort(1).orElseThrow();
+        String name = first.getName();
+        String facultyName = first.getFaculty().getName();
+
+        first.setName("Renamed by a caller");
+        first.getFaculty().setName("Renamed by a caller");
+
+        Cohort second = referenceDataCache.findCohort(1).orElseThrow();
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getName()).isEqualTo(name);
+        assertThat(second.getFaculty().getName()).isEqualTo(facultyName);
+        assertThat(referenceDataCache.findFaculty(second.getFaculty().getId()).orElseThrow().getName()).isEqualTo(facultyName);
+        assertThat(referenceDataCache.snapshot().getCohorts().get(1).getName()).isEqualTo(name);
+    }
+
+    @Test
+    public void testMissLoadsTheRowAndReloadsInTheBackground() throws InterruptedException {
+        jdbcTemplate.update("INSERT INTO cohort (id, name, faculty_id) VALUES (?, 'Written elsewhere', 1)", ELSEWHERE_ID);
+        long misses = referenceDataCache.getStats().getMisses();
+
+        Cohort cohort = referenceDataCache.findCohort(ELSEWHERE_ID).orElseThrow();
+        assertThat(cohort.getName()).isEqualTo("Written elsewhere");
+        assertThat(cohort.getFaculty().getId()).isEqualTo(1);
+        assertThat(referenceDataCache.getStats().getMisses()).isEqualTo(misses + 1);
+
+        for (int i = 0; i < 100 && !referenceDataCache.snapshot().getCohorts().containsKey(ELSEWHERE_ID); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(referenceDataCache.snapshot().getCohorts()).containsKey(ELSEWHERE_ID);
+        assertThat(referenceDataCache.findCohort(ELSEWHERE_ID)).isPresent();
+        assertThat(referenceDataCache.getStats().getMisses()).isEqualTo(misses + 1);
+    }
+
+    @Test
+    public void testMissOnAbsentRowDoesNotReload() {
+        long reloads = referenceDataCache.getStats().getReloads();
+        assertThat(referenceDataCache.findCourse(ELSEWHERE_ID)).isEmpty();
+        assertThat(referenceDataCache.findFaculty(ELSEWHERE_ID)).isEmpty();
+        assertThat(referenceDataCache.getStats().getReloads()).isEqualTo(reloads);
+    }
+}
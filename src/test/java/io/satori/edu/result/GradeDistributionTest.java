@@ -0,0 +1,121 @@
+package io.satori.edu.result;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Grade statistics served from the in-memory counters must match the result table after every kind of write,
+ * and after a rebuild.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+public class GradeDistributionTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GradeDistribution gradeDistribution;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private int courseId;
+    private List<Integer> students;
+
+    @BeforeEach
+    public void createCourse() {
+        ResponseEntity<String> created = restTemplate.postForEntity("/api/v1/courses?facultyId=1",
+                Map.of("name", "Grade statistics"), String.class);
+        assertThat(created.getStatusCode().is2xxSuccessful()).isTrue();
+        courseId = jdbcTemplate.queryForObject("SELECT id FROM course WHERE name = 'Grade statistics'", Integer.class);
+        students = jdbcTemplate.queryForList("SELECT id FROM student WHERE faculty_id = 1 ORDER BY id LIMIT 4", Integer.class);
+        assertThat(students).hasSize(4);
+    }
+
+    @AfterEach
+    public void deleteCourse() {
+        restTemplate.delete("/api/v1/courses/" + courseId);
+    }
+
+    @Test
+    public void testStatsFollowAddUpdateAndDelete() throws Exception {
+        int[] grades = {4, 6, 8, 10};
+        for (int i = 0; i < grades.length; i++) {
+            ResponseEntity<String> added = restTemplate.postForEntity("/api/v1/results?studentId=" + students.get(i)
+                    + "&courseId=" + courseId, Map.of("grade", grades[i]), String.class);
+            assertThat(added.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+        JsonNode stats = stats(6);
+        assertThat(stats.get("count").asLong()).isEqualTo(4);
+        assertThat(stats.get("mean").asDouble()).isEqualTo(7.0);
+        assertThat(stats.get("median").asDouble()).isEqualTo(7.0);
+        assertThat(stats.get("percentileRank").asDouble()).isEqualTo(37.5); //4 below, half of the 6
+        assertThat(stats.get("histogram").get("10").asLong()).isEqualTo(1);
+
+        restTemplate.put("/api/v1/results/student/" + students.get(3) + "/course/" + courseId + "?grade=2", null);
+        stats = stats(6);
+        assertThat(stats.get("count").asLong()).isEqualTo(4);
+        assertThat(stats.get("mean").asDouble()).isEqualTo(5.0);
+        assertThat(stats.get("median").asDouble()).isEqualTo(5.0);
+        assertThat(stats.get("percentileRank").asDouble()).isEqualTo(62.5);
+        assertThat(stats.get("histogram").get("10").asLong()).isZero();
+        assertThat(stats.get("histogram").get("2").asLong()).isEqualTo(1);
+
+        restTemplate.delete("/api/v1/results/student/" + students.get(2) + "/course/" + courseId);
+        stats = stats(6);
+        assertThat(stats.get("count").asLong()).isEqualTo(3);
+        assertThat(stats.get("mean").asDouble()).isEqualTo(4.0);
+        assertThat(stats.get("median").asDouble()).isEqualTo(4.0);
+        assertThat(stats.get("percentileRank").asDouble()).isCloseTo(250.0 / 3, within(1e-9));
+        assertThat(stats.get("histogram").get("8").asLong()).isZero();
+
+        gradeDistribution.rebuild();
+        assertThat(stats(6)).isEqualTo(stats); //the counters never drifted from the table
+    }
+
+    @Test
+    public void testRebuildReplaysChangesCommittedWhileLoading() {
+        ResultRepository repository = mock(ResultRepository.class);
+        GradeDistribution distribution = new GradeDistribution(repository);
+        when(repository.countGradesByCourse()).thenAnswer(invocation -> {
+            distribution.recordAdded(1, 9); //commits while the GROUP BY runs, after its snapshot
+            return List.<Object[]>of(new Object[] {1, 5, 2L});
+        });
+
+        distribution.rebuild();
+
+        GradeStats stats = distribution.getStats(1, null);
+        assertThat(stats.getCount()).isEqualTo(3);
+        assertThat(stats.getHistogram().get(5)).isEqualTo(2);
+        assertThat(stats.getHistogram().get(9)).isEqualTo(1);
+        assertThat(stats.getMean()).isCloseTo(19.0 / 3, within(1e-9));
+    }
+
+    private JsonNode stats(int grade) throws Exception {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/v1/courses/" + courseId + "/grades/stats?grade=" + grade, String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return objectMapper.readTree(response.getBody());
+    }
+}
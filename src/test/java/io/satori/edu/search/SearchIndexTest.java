@@ -0,0 +1,71 @@
+package io.satori.edu.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SearchIndexTest {
+
+    private SearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new SearchIndex();
+        index.put(SearchType.STUDENT, 1, "Anna Novak", "anna.novak@example.com");
+        index.put(SearchType.STUDENT, 2, "Joanna Smith", "jsmith@example.com");
+        index.put(SearchType.STUDENT, 3, "José Ánnabel", "jose@example.com");
+        index.put(SearchType.COURSE, 1, "Annals of History", null);
+        index.put(SearchType.COHORT, 1, "Anna", null);
+        index.put(SearchType.FACULTY, 1, "Engineering", null);
+    }
+
+    @Test
+    public void testRanksWholeNameThenStartThenWordThenAnywhere() {
+        assertThat(names(index.search("anna", null, 10)))
+                .containsExactly("Anna", "Anna Novak", "Annals of History", "José Ánnabel", "Joanna Smith");
+    }
+
+    @Test
+    public void testIgnoresCaseAccentsAndExtraSpaces() {
+        assertThat(names(index.search("  JOSE  ", null, 10))).containsExactly("José Ánnabel");
+        assertThat(names(index.search("anna   novak", null, 10))).containsExactly("Anna Novak");
+    }
+
+    @Test
+    public void testMatchesEmailsAfterNames() {
+        assertThat(names(index.search("smith", null, 10))).containsExactly("Joanna Smith");
+        assertThat(names(index.search("example.com", SearchType.STUDENT, 10))).hasSize(3);
+    }
+
+    @Test
+    public void testShortQueriesOnlyMatchTheStartOfAWord() {
+        assertThat(names(index.search("an", null, 10))).containsExactly("Anna", "Anna Novak", "Annals of History", "José Ánnabel");
+        assertThat(index.search("nn", null, 10)).isEmpty();
+    }
+
+    @Test
+    public void testFiltersByTypeAndKeepsTheBest() {
+        List<SearchHit> hits = index.search("ann", SearchType.STUDENT, 2);
+        assertThat(hits).extracting(SearchHit::getType).containsOnly(SearchType.STUDENT);
+        assertThat(names(hits)).containsExactly("Anna Novak", "José Ánnabel");
+    }
+
+    @Test
+    public void testPutReplacesAndRemoveForgets() {
+        index.put(SearchType.FACULTY, 1, "Mechanics", null);
+        assertThat(index.search("engineering", null, 10)).isEmpty();
+        assertThat(names(index.search("mechanics", null, 10))).containsExactly("Mechanics");
+
+        index.remove(SearchType.STUDENT, 1);
+        assertThat(index.search("novak", null, 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(5);
+    }
+
+    private static List<String> names(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,139 @@
+package io.satori.edu.staticasset;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Serves a fake frontend build from a temporary directory, through the real embedded Tomcat.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+public class StaticAssetServingTest {
+
+    private static final String BUNDLE = "main.0123456789abcdef.js";
+    //Above static-assets.sendfile-min-bytes, so it goes through sendfile
+    private static final String LARGE_BUNDLE = "vendor.fedcba9876543210.js";
+    private static final byte[] FAKE_BROTLI = {11, 2, 3, 4};
+
+    private static Path directory;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @DynamicPropertySource
+    static void staticAssets(DynamicPropertyRegistry registry) throws IOException {
+        directory = Files.createTempDirectory("static-asset-test");
+        write("index.html", "<html><body>index</body></html>".getBytes(StandardCharsets.UTF_8));
+        write(BUNDLE, text(4_000));
+        write(BUNDLE + ".gz", gzip(text(4_000)));
+        write(BUNDLE + ".br", FAKE_BROTLI); //never decoded, only its bytes are compared
+        write(LARGE_BUNDLE, text(200_000));
+        write(LARGE_BUNDLE + ".gz", gzip(text(200_000)));
+        registry.add("static-assets.location", () -> directory.toUri().toString());
+    }
+
+    @AfterAll
+    static void deleteDirectory() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Test
+    public void testPicksBrotliWhenAccepted() {
+        ResponseEntity<byte[]> response = get("/" + BUNDLE, "gzip, deflate, br");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("br");
+        assertThat(response.getHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo(StaticAssetHandler.IMMUTABLE);
+        assertThat(response.getBody()).isEqualTo(FAKE_BROTLI);
+    }
+
+    @Test
+    public void testFallsBackToGzipAndIdentity() {
+        ResponseEntity<byte[]> gzipped = get("/" + BUNDLE, "br;q=0, gzip");
+        assertThat(gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzipped.getBody()).isEqualTo(gzip(text(4_000)));
+
+        ResponseEntity<byte[]> plain = get("/" + BUNDLE, "identity");
+        assertThat(plain.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(plain.getHeaders().getContentLength()).isEqualTo(4_000);
+        assertThat(plain.getBody()).isEqualTo(text(4_000));
+    }
+
+    @Test
+    public void testLargeFilesAreSentWhole() {
+        assertThat(get("/" + LARGE_BUNDLE, "identity").getBody()).isEqualTo(text(200_000));
+        assertThat(get("/" + LARGE_BUNDLE, "gzip").getBody()).isEqualTo(gzip(text(200_000)));
+    }
+
+    @Test
+    public void testIndexIsRevalidated() {
+        ResponseEntity<byte[]> response = get("/", null);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo(StaticAssetHandler.REVALIDATE);
+        assertThat(response.getHeaders().getContentType().toString()).startsWith("text/html");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(response.getHeaders().getETag());
+        ResponseEntity<byte[]> notModified = restTemplate.exchange("/index.html", HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    public void testUnknownFilesAreNotFound() {
+        assertThat(get("/missing.js", null).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(get("/" + BUNDLE + ".gz", null).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private ResponseEntity<byte[]> get(String path, String acceptEncoding) {
+        HttpHeaders headers = new HttpHeaders();
+        if (acceptEncoding != null) {
+            headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return restTemplate.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+    }
+
+    private static void write(String name, byte[] content) throws IOException {
+        Files.write(directory.resolve(name), content);
+    }
+
+    private static byte[] text(int length) {
+        byte[] text = new byte[length];
+        for (int i = 0; i < length; i++) {
+            text[i] = (byte) ('a' + i % 26);
+        }
+        return text;
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
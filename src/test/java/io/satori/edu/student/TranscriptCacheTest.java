@@ -0,0 +1,35 @@
+package io.satori.edu.student;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Evictions only reach this node, so entries must also expire on their own.
+ */
+public class TranscriptCacheTest {
+
+    @Test
+    public void testEntryIsServedUntilItExpires() throws InterruptedException {
+        TranscriptCache cache = new TranscriptCache(10, 200);
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<StudentTranscript> loader = () -> {
+            loads.incrementAndGet();
+            return mock(StudentTranscript.class);
+        };
+
+        StudentTranscript first = cache.get(1, loader);
+        assertThat(cache.get(1, loader)).isSameAs(first);
+        assertThat(loads).hasValue(1);
+
+        Thread.sleep(250);
+        StudentTranscript reloaded = cache.get(1, loader);
+        assertThat(reloaded).isNotSameAs(first);
+        assertThat(loads).hasValue(2);
+        assertThat(cache.get(1, loader)).isSameAs(reloaded);
+    }
+}